@@ -49,17 +49,33 @@ public class JarFileShadingTest extends AbstractJarFileTest {
 		assertThatFileList(root.resolve("META-INF")).containsOnly(
 				"MANIFEST.MF",
 				"LICENSE",
-				"services"
+				"services",
+				"versions"
 		);
 		assertThatFileList(root.resolve("META-INF").resolve("services")).containsOnly(
 				"reactor.blockhound.integration.BlockHoundIntegration"
 		);
 	}
 
+	@Test
+	public void testMultiReleaseClasses() throws Exception {
+		Path versions = root.resolve("META-INF/versions");
+		assertThatFileList(versions).containsOnly("11", "14", "21");
+		assertThat(versions.resolve("11/reactor/blockhound/BlockingCallEvents.class")).exists();
+		assertThat(versions.resolve("11/reactor/blockhound/StackWalking.class")).exists();
+		assertThat(versions.resolve("14/reactor/blockhound/JfrBlockingCallDetector.class")).exists();
+		assertThat(versions.resolve("21/reactor/blockhound/VirtualThreads.class")).exists();
+		assertThat(versions.resolve("21/reactor/blockhound/AllowedScopes.class")).exists();
+		assertThat(linesOf(root.resolve("META-INF/MANIFEST.MF").toUri().toURL()))
+				.contains("Multi-Release: true");
+	}
+
 	@Test
 	public void testManifest() throws MalformedURLException {
 		assertThat(linesOf(root.resolve("META-INF/MANIFEST.MF").toUri().toURL()))
-				.anyMatch(s -> s.startsWith("Premain-Class: reactor"));
+				.anyMatch(s -> s.startsWith("Premain-Class: reactor"))
+				.anyMatch(s -> s.startsWith("Agent-Class: reactor"))
+				.anyMatch(s -> s.startsWith("Main-Class: reactor"));
 	}
 
 	@SuppressWarnings("unchecked")
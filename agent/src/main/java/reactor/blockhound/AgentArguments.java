@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import reactor.blockhound.integration.BlockHoundIntegration;
+import reactor.blockhound.integration.ReactorIntegration;
+import reactor.blockhound.integration.RxJava2Integration;
+import reactor.blockhound.integration.StandardOutputIntegration;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Parses the arguments of the agent, formatted as {@code key1=value1,key2=value2}.
+ */
+final class AgentArguments {
+
+    /**
+     * The integrations that can be enabled by their short name with the {@code integrations} argument.
+     */
+    static final Map<String, Supplier<BlockHoundIntegration>> BUILT_IN_INTEGRATIONS;
+
+    static {
+        @SuppressWarnings("deprecation")
+        Supplier<BlockHoundIntegration> logging = reactor.blockhound.integration.LoggingIntegration::new;
+        Map<String, Supplier<BlockHoundIntegration>> integrations = new LinkedHashMap<>();
+        integrations.put("reactor", ReactorIntegration::new);
+        integrations.put("rxjava2", RxJava2Integration::new);
+        integrations.put("standard-output", StandardOutputIntegration::new);
+        integrations.put("logging", logging);
+        BUILT_IN_INTEGRATIONS = Collections.unmodifiableMap(integrations);
+    }
+
+    /**
+     * Applies the arguments of {@link BlockHound#premain(String, java.lang.instrument.Instrumentation)} to the builder:
+     * <ul>
+     *     <li>{@code config}: a properties file with any of the other arguments as keys, overridden by the agent arguments</li>
+     *     <li>{@code integrations}: the integrations to apply instead of loading them with {@link java.util.ServiceLoader},
+     *     e.g. {@code reactor;standard-output;com.example.MyIntegration}, see {@link #BUILT_IN_INTEGRATIONS}.
+     *     Empty to apply none</li>
+     *     <li>{@code blocking}: the methods to mark as blocking, e.g. {@code com.example.Foo#bar(J)V;com.example.Foo#baz()V}</li>
+     *     <li>{@code allow}: the methods to allow blocking calls inside, e.g. {@code com.example.Foo#bar;com.example.Foo#baz}</li>
+     *     <li>{@code disallow}: the methods to disallow blocking calls inside, in the same format</li>
+     *     <li>{@code nonBlockingThreadNamePrefixes}: the name prefixes of the non-blocking threads, e.g. {@code parallel-;worker-}</li>
+     *     <li>{@code callSites}: the packages checked by the call-site engine, e.g. {@code com.example;org.acme},
+     *     see {@link BlockHound.Builder#instrumentCallSites(String...)}</li>
+     *     <li>{@code pinnedVirtualThreads}: {@code true} to report the pinned virtual threads,
+     *     see {@link BlockHound.Builder#reportPinnedVirtualThreads(boolean)}</li>
+     *     <li>{@code cacheDir}: the directory of the cached transformed classes, see {@link BlockHound.Builder#cacheTransformedClasses(Path)}</li>
+     *     <li>{@code strict}: {@code true} to fail on the unknown arguments instead of printing a warning</li>
+     * </ul>
+     * The values can also be separated by whitespaces (e.g. new lines) instead of {@code ;}.
+     *
+     * @param builder the builder to configure
+     * @param agentArgs the arguments of the agent, possibly null
+     */
+    static void configure(BlockHound.Builder builder, String agentArgs) {
+        Map<String, String> arguments = parse(agentArgs);
+        String config = arguments.remove("config");
+        if (config != null) {
+            Map<String, String> configuration = load(Paths.get(config));
+            configuration.putAll(arguments);
+            arguments = configuration;
+        }
+
+        String integrations = arguments.remove("integrations");
+        if (integrations == null) {
+            builder.loadIntegrations();
+        }
+        else {
+            parseIntegrations(integrations).forEach(builder::with);
+        }
+
+        String strict = arguments.getOrDefault("strict", "false");
+        arguments.remove("strict");
+        if (!"true".equals(strict) && !"false".equals(strict)) {
+            throw new IllegalArgumentException("strict must be true or false, got: " + strict);
+        }
+
+        arguments.forEach((key, value) -> {
+            switch (key) {
+                case "blocking":
+                    parseSignatures(value).forEach(method -> builder.markAsBlocking(method[0], method[1], method[2]));
+                    break;
+                case "allow":
+                    parseMethods(value).forEach(method -> builder.allowBlockingCallsInside(method[0], method[1]));
+                    break;
+                case "disallow":
+                    parseMethods(value).forEach(method -> builder.disallowBlockingCallsInside(method[0], method[1]));
+                    break;
+                case "nonBlockingThreadNamePrefixes":
+                    List<String> prefixes = parseList(value);
+                    builder.nonBlockingThreadPredicate(current -> current.or(thread -> {
+                        String name = thread.getName();
+                        for (String prefix : prefixes) {
+                            if (name.startsWith(prefix)) {
+                                return true;
+                            }
+                        }
+                        return false;
+                    }));
+                    break;
+                case "callSites":
+                    builder.instrumentCallSites(parseList(value).toArray(new String[0]));
+                    break;
+                case "pinnedVirtualThreads":
+                    if (!"true".equals(value) && !"false".equals(value)) {
+                        throw new IllegalArgumentException("pinnedVirtualThreads must be true or false, got: " + value);
+                    }
+                    builder.reportPinnedVirtualThreads(Boolean.parseBoolean(value));
+                    break;
+                case "cacheDir":
+                    builder.cacheTransformedClasses(Paths.get(value));
+                    break;
+                default:
+                    if (Boolean.parseBoolean(strict)) {
+                        throw new IllegalArgumentException("Unknown agent argument '" + key + "'");
+                    }
+                    // The agent arguments used to be ignored, so they are not rejected by default
+                    System.err.println("BlockHound: ignoring the unknown agent argument '" + key + "'");
+            }
+        });
+    }
+
+    static Map<String, String> load(Path file) {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read the configuration file " + file, e);
+        }
+
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String key : new TreeSet<>(properties.stringPropertyNames())) {
+            if ("config".equals(key)) {
+                throw new IllegalArgumentException("The configuration file " + file + " must not contain 'config'");
+            }
+            result.put(key, properties.getProperty(key).trim());
+        }
+        return result;
+    }
+
+    /**
+     * @param value integrations such as {@code reactor;com.example.MyIntegration}
+     * @return the integrations sorted like {@link BlockHound.Builder#loadIntegrations(BlockHoundIntegration...)} does
+     */
+    static List<BlockHoundIntegration> parseIntegrations(String value) {
+        List<BlockHoundIntegration> result = new ArrayList<>();
+        for (String name : parseList(value)) {
+            Supplier<BlockHoundIntegration> builtIn = BUILT_IN_INTEGRATIONS.get(name);
+            if (builtIn != null) {
+                result.add(builtIn.get());
+                continue;
+            }
+
+            try {
+                Class<?> integrationClass = Class.forName(name, true, ClassLoader.getSystemClassLoader());
+                result.add((BlockHoundIntegration) integrationClass.getConstructor().newInstance());
+            }
+            catch (ReflectiveOperationException | ClassCastException e) {
+                throw new IllegalArgumentException("Invalid integration '" + name + "', expected one of " +
+                        BUILT_IN_INTEGRATIONS.keySet() + " or the name of a BlockHoundIntegration class", e);
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * @param value methods such as {@code com.example.Foo#bar;com.example.Foo#baz}
+     * @return the class and method names of every method
+     */
+    static List<String[]> parseMethods(String value) {
+        List<String[]> result = new ArrayList<>();
+        for (String method : parseList(value)) {
+            int separator = method.indexOf('#');
+            if (separator <= 0 || separator == method.length() - 1) {
+                throw new IllegalArgumentException("Invalid method '" + method + "', expected e.g. com.example.Foo#bar");
+            }
+            result.add(new String[]{method.substring(0, separator), method.substring(separator + 1)});
+        }
+        return result;
+    }
+
+    /**
+     * Since the descriptors contain {@code ;}, the end of every method is found by parsing its descriptor.
+     *
+     * @param value methods such as {@code com.example.Foo#bar(Ljava/lang/String;)V;com.example.Foo#baz()V}
+     * @return the class name, method name and descriptor of every method
+     */
+    static List<String[]> parseSignatures(String value) {
+        List<String[]> result = new ArrayList<>();
+        int index = 0;
+        while (true) {
+            while (index < value.length() && isSeparator(value.charAt(index))) {
+                index++;
+            }
+            if (index == value.length()) {
+                return result;
+            }
+
+            int start = index;
+            int separator = value.indexOf('#', start);
+            int descriptorStart = separator < 0 ? -1 : value.indexOf('(', separator);
+            int end = descriptorStart < 0 ? -1 : endOfDescriptor(value, descriptorStart);
+            if (separator <= start || descriptorStart <= separator + 1 || end < 0) {
+                int next = start;
+                while (next < value.length() && !isSeparator(value.charAt(next))) {
+                    next++;
+                }
+                throw new IllegalArgumentException("Invalid method '" + value.substring(start, next) +
+                        "', expected e.g. com.example.Foo#bar(J)V");
+            }
+            result.add(new String[]{
+                    value.substring(start, separator),
+                    value.substring(separator + 1, descriptorStart),
+                    value.substring(descriptorStart, end)
+            });
+            index = end;
+        }
+    }
+
+    /**
+     * @return the index after the method descriptor that starts at the provided index, or -1 if invalid
+     */
+    private static int endOfDescriptor(String value, int start) {
+        int index = start + 1;
+        while (index < value.length() && value.charAt(index) != ')') {
+            index = endOfType(value, index);
+            if (index < 0) {
+                return -1;
+            }
+        }
+        if (index == value.length()) {
+            return -1;
+        }
+        return endOfType(value, index + 1);
+    }
+
+    private static int endOfType(String value, int start) {
+        int index = start;
+        while (index < value.length() && value.charAt(index) == '[') {
+            index++;
+        }
+        if (index == value.length()) {
+            return -1;
+        }
+        switch (value.charAt(index)) {
+            case 'L':
+                int end = value.indexOf(';', index);
+                return end < 0 ? -1 : end + 1;
+            case 'V':
+            case 'Z':
+            case 'B':
+            case 'C':
+            case 'S':
+            case 'I':
+            case 'J':
+            case 'F':
+            case 'D':
+                return index + 1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * @param value values separated by {@code ;} or whitespaces
+     * @return the non-empty values
+     */
+    static List<String> parseList(String value) {
+        List<String> result = new ArrayList<>();
+        for (String element : value.split("[;\\s]+")) {
+            if (!element.isEmpty()) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ';' || Character.isWhitespace(c);
+    }
+
+    static Map<String, String> parse(String agentArgs) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (agentArgs == null || agentArgs.trim().isEmpty()) {
+            return result;
+        }
+
+        for (String argument : agentArgs.split(",")) {
+            int separator = argument.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid agent argument '" + argument + "', expected key=value");
+            }
+            result.put(argument.substring(0, separator).trim(), argument.substring(separator + 1).trim());
+        }
+        return result;
+    }
+
+    /**
+     * @param value a duration such as {@code 500ms}, {@code 60s}, {@code 5m} or {@code 1h}
+     * @return the parsed duration
+     */
+    static Duration parseDuration(String value) {
+        try {
+            if (value.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+            }
+            long amount = Long.parseLong(value.substring(0, value.length() - 1));
+            switch (value.charAt(value.length() - 1)) {
+                case 's':
+                    return Duration.ofSeconds(amount);
+                case 'm':
+                    return Duration.ofMinutes(amount);
+                case 'h':
+                    return Duration.ofHours(amount);
+            }
+        }
+        catch (NumberFormatException | IndexOutOfBoundsException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid duration '" + value + "', expected e.g. 500ms, 60s, 5m or 1h");
+    }
+
+    private AgentArguments() {
+    }
+}
@@ -31,6 +31,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.security.ProtectionDomain;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * This transformer applies {@link AllowAdvice} to every method
@@ -38,9 +39,9 @@ import java.util.Map;
  */
 class AllowancesByteBuddyTransformer implements AgentBuilder.Transformer {
 
-    private Map<String, Map<String, Boolean>> allowances;
+    private Supplier<Map<String, Map<String, Boolean>>> allowances;
 
-    AllowancesByteBuddyTransformer(Map<String, Map<String, Boolean>> allowances) {
+    AllowancesByteBuddyTransformer(Supplier<Map<String, Map<String, Boolean>>> allowances) {
         this.allowances = allowances;
     }
 
@@ -52,7 +53,7 @@ class AllowancesByteBuddyTransformer implements AgentBuilder.Transformer {
             JavaModule module,
             ProtectionDomain protectionDomain
     ) {
-        Map<String, Boolean> methods = allowances.get(typeDescription.getName());
+        Map<String, Boolean> methods = allowances.get().get(typeDescription.getName());
 
         if (methods == null) {
             return builder;
@@ -109,8 +110,9 @@ class AllowancesByteBuddyTransformer implements AgentBuilder.Transformer {
         static BlockHoundRuntime.State onEnter(
                 @AllowancesByteBuddyTransformer.AllowedArgument boolean allowed
         ) {
-            BlockHoundRuntime.State previous = BlockHoundRuntime.STATE.get();
-            if (previous == null) {
+            BlockHoundRuntime.State previous = BlockHoundRuntime.currentState();
+            if (!previous.isChecked()) {
+                // The blocking calls of this thread are not checked, skip the `onExit` part
                 return null;
             }
 
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.blockhound;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Carries the allowances of {@link BlockHound#allowBlocking(Callable)} to the threads forked inside them.
+ * Injected into the bootstrap classloader with {@link BlockHoundRuntime}, hence the public methods.
+ * <p>
+ * There are no scoped values before JDK 21, this class is replaced on JDK 21+ by the one in {@code src/main/java21}
+ * (the multi-release part of the agent).
+ */
+final class AllowedScopes {
+
+    /**
+     * @param callable the callable whose forks inherit the allowance
+     * @param <T> the type of the result
+     * @return the result of the callable
+     * @throws Exception if the callable throws
+     */
+    public static <T> T call(Callable<T> callable) throws Exception {
+        return callable.call();
+    }
+
+    /**
+     * @return whether the current thread was forked inside an allowance of another thread
+     */
+    public static boolean isInherited() {
+        return false;
+    }
+
+    private AllowedScopes() {
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Publishes the detected blocking calls into a bounded multi-producer single-consumer ring buffer,
+ * drained by a dedicated daemon thread that invokes the callback.
+ * <p>
+ * The ring buffer is the bounded queue of Dmitry Vyukov: every slot has a sequence number telling
+ * whether it can be written (sequence == position) or read (sequence == position + 1).
+ * Publishing a blocking call does not allocate, block, nor call the callback.
+ */
+class AsyncBlockingCallReporter implements BlockHoundRuntime.BlockingCallConsumer {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Consumer<BlockingMethod> callback;
+
+    private final BlockHound.OverflowStrategy overflowStrategy;
+
+    private final int mask;
+
+    private final AtomicLongArray sequences;
+
+    private final BlockingMethod[] methods;
+
+    private final int[] samplingIntervals;
+
+    private final long[] durations;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Only accessed by the drainer thread
+    private long head = 0;
+
+    private final Thread drainer;
+
+    AsyncBlockingCallReporter(
+            Consumer<BlockingMethod> callback,
+            int capacity,
+            BlockHound.OverflowStrategy overflowStrategy
+    ) {
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+
+        this.callback = callback;
+        this.overflowStrategy = overflowStrategy;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.methods = new BlockingMethod[size];
+        this.samplingIntervals = new int[size];
+        this.durations = new long[size];
+
+        this.drainer = new Thread(this::drainLoop, "blockhound-reporter");
+        this.drainer.setDaemon(true);
+    }
+
+    /**
+     * Starts the drainer thread and makes {@link BlockHoundRuntime} publish the blocking calls to this reporter.
+     */
+    void start() {
+        drainer.start();
+        // Not assigned by BlockHound, since it would make the verifier load BlockingCallConsumer before its injection
+        BlockHoundRuntime.blockingMethodConsumer = this;
+    }
+
+    /**
+     * Stops the drainer thread once the published blocking calls have been reported.
+     */
+    void stop() {
+        drainer.interrupt();
+    }
+
+    /**
+     * @return the number of the blocking calls that were dropped because the ring buffer was full
+     */
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public void accept(Object method, int samplingInterval, long durationNanos) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    methods[index] = (BlockingMethod) method;
+                    samplingIntervals[index] = samplingInterval;
+                    durations[index] = durationNanos;
+                    sequences.lazySet(index, position + 1);
+                    return;
+                }
+                position = tail.get();
+            }
+            else if (difference < 0) {
+                // Full
+                if (overflowStrategy == BlockHound.OverflowStrategy.DROP_AND_COUNT) {
+                    dropped.incrementAndGet();
+                }
+                return;
+            }
+            else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Invokes the callback with all the published blocking calls.
+     *
+     * @return the number of blocking calls passed to the callback
+     */
+    int drain() {
+        int drained = 0;
+        while (true) {
+            long position = head;
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                return drained;
+            }
+
+            BlockingMethod method = methods[index];
+            int samplingInterval = samplingIntervals[index];
+            long durationNanos = durations[index];
+            methods[index] = null;
+            sequences.lazySet(index, position + mask + 1);
+            head = position + 1;
+            drained++;
+
+            try {
+                callback.accept(method.withDetails(samplingInterval, durationNanos));
+            }
+            catch (Throwable e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    private void drainLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        drain();
+    }
+}
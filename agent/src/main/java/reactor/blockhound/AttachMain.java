@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import net.bytebuddy.agent.ByteBuddyAgent;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * The command-line launcher of the BlockHound jar, that attaches it to a running local JVM for a diagnostic session,
+ * see {@link AttachSession}:
+ * <pre>
+ * java -jar blockhound.jar attach &lt;pid&gt; [--duration 60s] [--mode count|log] [--out report.json]
+ * </pre>
+ * Waits until the report is written by the JVM.
+ */
+final class AttachMain {
+
+    static final String USAGE = "Usage: java -jar blockhound.jar attach <pid> [--duration 60s] [--mode count|log] [--out report.json]";
+
+    /**
+     * How long to wait for the report after the end of the session, since the uninstallation retransforms classes.
+     */
+    static final Duration REPORT_TIMEOUT = Duration.ofMinutes(1);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2 || !"attach".equals(args[0]) || args.length % 2 != 0) {
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
+        }
+
+        String pid = args[1];
+        String duration = "60s";
+        String mode = "count";
+        Path out = Paths.get("blockhound-" + pid + ".json");
+        for (int i = 2; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "--duration":
+                    duration = args[i + 1];
+                    break;
+                case "--mode":
+                    mode = args[i + 1].toLowerCase(Locale.ROOT);
+                    break;
+                case "--out":
+                    out = Paths.get(args[i + 1]);
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.err.println(USAGE);
+                    System.exit(1);
+                    return;
+            }
+        }
+        out = out.toAbsolutePath();
+
+        Duration sessionDuration = AgentArguments.parseDuration(duration);
+        if (!"count".equals(mode) && !"log".equals(mode)) {
+            throw new IllegalArgumentException("The mode must be 'count' or 'log', got: " + mode);
+        }
+        if (out.toString().contains(",")) {
+            throw new IllegalArgumentException("The path of the report must not contain ',': " + out);
+        }
+        Files.deleteIfExists(out);
+
+        ByteBuddyAgent.attach(agentJar(), pid, "duration=" + duration + ",mode=" + mode + ",out=" + out);
+        System.out.println("Attached to " + pid + ", collecting the blocking calls for " + duration + "...");
+
+        long deadline = System.nanoTime() + sessionDuration.plus(REPORT_TIMEOUT).toNanos();
+        while (!Files.exists(out)) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("The report was not written to " + out + ", see the standard error of " + pid);
+            }
+            Thread.sleep(100);
+        }
+        System.out.println("Report written to " + out);
+    }
+
+    private static File agentJar() throws URISyntaxException {
+        File file = new File(AttachMain.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        if (!file.isFile()) {
+            throw new IllegalStateException("The launcher must be run from the BlockHound jar, got: " + file);
+        }
+        return file;
+    }
+
+    private AttachMain() {
+    }
+}
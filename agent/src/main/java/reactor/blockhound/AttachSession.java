@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import javax.management.JMX;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A diagnostic session on a running JVM, installed by {@link BlockHound#agentmain(String, java.lang.instrument.Instrumentation)}:
+ * BlockHound is installed without calling any callback, the reported blocking calls are counted
+ * by the {@link BlockHoundMXBean} for the duration of the session, then a JSON report is written
+ * and BlockHound is uninstalled. The checked and allowed counters of the MBean are kept across the installations,
+ * while the reported counters start from zero with every installation: every count of the report is the difference
+ * with a snapshot taken at the start of the session, which is correct for both.
+ * <p>
+ * The agent arguments are:
+ * <ul>
+ *     <li>{@code duration}: the duration of the session, e.g. {@code 60s} (required)</li>
+ *     <li>{@code out}: the absolute path of the report (required)</li>
+ *     <li>{@code mode}: {@code count} (default) to only count the blocking calls,
+ *     or {@code log} to also print them to the standard error of the JVM</li>
+ * </ul>
+ */
+final class AttachSession implements Runnable {
+
+    static final String THREAD_NAME = "blockhound-attach-session";
+
+    final Duration duration;
+
+    final Path out;
+
+    final BlockHound.ReportingMode mode;
+
+    static AttachSession parse(String agentArgs) {
+        Map<String, String> arguments = AgentArguments.parse(agentArgs);
+
+        String duration = arguments.get("duration");
+        String out = arguments.get("out");
+        if (duration == null || out == null) {
+            throw new IllegalArgumentException("The 'duration' and 'out' agent arguments are required, got: " + agentArgs);
+        }
+
+        BlockHound.ReportingMode mode = BlockHound.ReportingMode.valueOf(
+                arguments.getOrDefault("mode", "count").toUpperCase(Locale.ROOT)
+        );
+        if (mode == BlockHound.ReportingMode.CALLBACK) {
+            throw new IllegalArgumentException("The mode must be 'count' or 'log'");
+        }
+
+        return new AttachSession(AgentArguments.parseDuration(duration), Paths.get(out), mode);
+    }
+
+    AttachSession(Duration duration, Path out, BlockHound.ReportingMode mode) {
+        this.duration = duration;
+        this.out = out;
+        this.mode = mode;
+    }
+
+    /**
+     * Starts the session once BlockHound is installed with the MBean.
+     */
+    void start() {
+        mbean().setReportingMode(mode);
+
+        Thread thread = new Thread(this, THREAD_NAME);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        BlockHoundMXBean mbean = mbean();
+        long checked = mbean.getCheckedCount();
+        long allowed = mbean.getAllowedCount();
+        long reported = mbean.getReportedCount();
+        Map<String, Long> reportedPerMethod = mbean.getReportedCountPerMethod();
+        Map<String, Long> reportedPerThread = mbean.getReportedCountPerThread();
+        Instant startedAt = Instant.now();
+        try {
+            Thread.sleep(duration.toMillis());
+        }
+        catch (InterruptedException e) {
+            // Report what was collected so far
+        }
+
+        try {
+            String report = report(
+                    mbean,
+                    startedAt,
+                    mbean.getCheckedCount() - checked,
+                    mbean.getAllowedCount() - allowed,
+                    mbean.getReportedCount() - reported,
+                    delta(mbean.getReportedCountPerMethod(), reportedPerMethod),
+                    delta(mbean.getReportedCountPerThread(), reportedPerThread)
+            );
+            BlockHound.uninstall();
+            write(report);
+        }
+        catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    private String report(
+            BlockHoundMXBean mbean,
+            Instant startedAt,
+            long checked,
+            long allowed,
+            long reported,
+            Map<String, Long> reportedPerMethod,
+            Map<String, Long> reportedPerThread
+    ) {
+        StringBuilder sb = new StringBuilder("{\n");
+        field(sb, "jvm", quote(ManagementFactory.getRuntimeMXBean().getName()));
+        field(sb, "startedAt", quote(startedAt.toString()));
+        field(sb, "durationMillis", Duration.between(startedAt, Instant.now()).toMillis());
+        field(sb, "mode", quote(mode.name().toLowerCase(Locale.ROOT)));
+        field(sb, "samplingInterval", mbean.getSamplingInterval());
+        field(sb, "checkedCount", checked);
+        field(sb, "allowedCount", allowed);
+        field(sb, "reportedCount", reported);
+        field(sb, "reportedCountPerMethod", counts(reportedPerMethod));
+        sb.append("  \"reportedCountPerThread\": ").append(counts(reportedPerThread)).append("\n}\n");
+        return sb.toString();
+    }
+
+    private void write(String report) throws IOException {
+        Path absoluteOut = out.toAbsolutePath();
+        // Written atomically, so that the report is complete once it exists, see AttachMain
+        Path tmp = Files.createTempFile(absoluteOut.getParent(), absoluteOut.getFileName().toString(), ".tmp");
+        Files.write(tmp, report.getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(tmp, absoluteOut, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, absoluteOut, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static BlockHoundMXBean mbean() {
+        try {
+            return JMX.newMXBeanProxy(
+                    ManagementFactory.getPlatformMBeanServer(),
+                    new ObjectName(BlockHoundMXBean.OBJECT_NAME),
+                    BlockHoundMXBean.class
+            );
+        }
+        catch (MalformedObjectNameException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void field(StringBuilder sb, String name, Object value) {
+        sb.append("  ").append(quote(name)).append(": ").append(value).append(",\n");
+    }
+
+    private static Map<String, Long> delta(Map<String, Long> counts, Map<String, Long> initialCounts) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        counts.forEach((key, count) -> {
+            long delta = count - initialCounts.getOrDefault(key, 0L);
+            if (delta > 0) {
+                result.put(key, delta);
+            }
+        });
+        return result;
+    }
+
+    private static String counts(Map<String, Long> counts) {
+        if (counts.isEmpty()) {
+            return "{}";
+        }
+
+        StringBuilder sb = new StringBuilder("{\n");
+        counts.forEach((key, count) -> sb.append("    ").append(quote(key)).append(": ").append(count).append(",\n"));
+        sb.setLength(sb.length() - 2);
+        return sb.append("\n  }").toString();
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            }
+            else if (c < ' ') {
+                sb.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
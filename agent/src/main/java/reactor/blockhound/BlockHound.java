@@ -16,6 +16,7 @@
 
 package reactor.blockhound;
 
+import net.bytebuddy.ByteBuddy;
 import net.bytebuddy.agent.ByteBuddyAgent;
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.agent.builder.AgentBuilder.DescriptionStrategy;
@@ -26,15 +27,23 @@ import net.bytebuddy.agent.builder.AgentBuilder.RedefinitionStrategy.DiscoverySt
 import net.bytebuddy.agent.builder.AgentBuilder.TypeStrategy;
 import net.bytebuddy.asm.Advice;
 import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.dynamic.scaffold.MethodGraph;
+import net.bytebuddy.dynamic.scaffold.TypeValidation;
 import net.bytebuddy.matcher.ElementMatchers;
 import net.bytebuddy.pool.TypePool;
 import net.bytebuddy.pool.TypePool.CacheProvider;
 import reactor.blockhound.integration.BlockHoundIntegration;
 
+import java.io.File;
 import java.lang.instrument.ClassFileTransformer;
 import java.lang.instrument.Instrumentation;
+import java.lang.instrument.UnmodifiableClassException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -64,8 +73,25 @@ public class BlockHound {
 
     static final String PREFIX = "$$BlockHound$$_";
 
+    private static final String TEST_THREAD_INTERNAL_NAME = TestThread.class.getName().replace('.', '/');
+
     private static final AtomicBoolean INITIALIZED = new AtomicBoolean(false);
 
+    private static final AtomicBoolean BOOTSTRAP_CLASSES_INJECTED = new AtomicBoolean(false);
+
+    /**
+     * The builder of the current or last installation, see {@link #reinstall()}.
+     */
+    private static volatile Builder lastInstallation;
+
+    private static volatile Map<InstallationPhase, Duration> installationTimings = Collections.emptyMap();
+
+    // Not private, since the synthetic accessors would make the reflective lookup of premain/agentmain
+    // load the BlockHoundRuntime interfaces that these classes implement before their injection
+    static volatile AsyncBlockingCallReporter asyncReporter;
+
+    static volatile BlockingCallDurationRecorder durationRecorder;
+
     /**
      * Creates a completely new {@link BlockHound.Builder} that *does not* have any integration applied.
      * Use it only if you want to ignore the built-in SPI mechanism (see {@link #install(BlockHoundIntegration...)}).
@@ -93,23 +119,378 @@ public class BlockHound {
 
     /**
      * Entrypoint for installation via the {@code -javaagent=} command-line option.
+     * Installs BlockHound with the integrations, configured by the agent arguments, e.g.
+     * {@code -javaagent:blockhound.jar=allow=com.example.Foo#bar;com.example.Foo#baz,cacheDir=/tmp/blockhound},
+     * or by a configuration file, e.g. {@code -javaagent:blockhound.jar=config=blockhound.properties}.
+     * The integrations are loaded with {@link ServiceLoader} unless they are listed by the {@code integrations} option.
      *
-     * @param agentArgs Options for the agent.
+     * @param agentArgs Options for the agent: {@code config}, {@code integrations}, {@code blocking}, {@code allow},
+     * {@code disallow}, {@code nonBlockingThreadNamePrefixes}, {@code callSites}, {@code pinnedVirtualThreads},
+     * {@code cacheDir} and {@code strict}, all optional.
      * @param inst Instrumentation API.
      *
      * @see java.lang.instrument
      */
     public static void premain(String agentArgs, Instrumentation inst) {
+        Builder builder = builder().with(inst);
+        AgentArguments.configure(builder, agentArgs);
+        builder.install();
+    }
+
+    /**
+     * Entrypoint for the dynamic attach to a running JVM, e.g. with {@code java -jar blockhound.jar attach <pid>}.
+     * Installs BlockHound for a diagnostic session, where the blocking calls are counted instead of throwing,
+     * then writes a report and uninstalls BlockHound at the end of the session.
+     *
+     * @param agentArgs Options of the session, e.g. {@code duration=60s,mode=count,out=/tmp/report.json}.
+     * @param inst Instrumentation API.
+     *
+     * @see java.lang.instrument
+     */
+    public static void agentmain(String agentArgs, Instrumentation inst) {
+        AttachSession session = AttachSession.parse(agentArgs);
+        if (isInstalled()) {
+            throw new IllegalStateException("BlockHound is already installed");
+        }
+
         builder()
                 .loadIntegrations()
                 .with(inst)
+                .registerMBean(true)
+                // Only until the reporting mode of the session is set
+                .blockingMethodCallback(it -> {})
                 .install();
+        session.start();
+    }
+
+    /**
+     * Removes the instrumentation: the transformers are removed and the instrumented classes are retransformed
+     * back to their original bytecode, so that the blocking calls are not checked anymore and have no overhead.
+     * The recorded durations (see {@link Builder#recordBlockingCallDurations(int)}) can still be retrieved.
+     *
+     * BlockHound can then be installed again, either with the same configuration (see {@link #reinstall()})
+     * or with a new one. Has no effect if BlockHound is not installed.
+     * Must not be called concurrently with the installation.
+     */
+    public static synchronized void uninstall() {
+        Builder builder = lastInstallation;
+        if (builder == null || !INITIALIZED.get()) {
+            return;
+        }
+
+        builder.uninstall();
+        INITIALIZED.set(false);
+    }
+
+    /**
+     * Installs BlockHound again with the configuration of the last installation, after {@link #uninstall()}.
+     * Has no effect if BlockHound is installed.
+     *
+     * @throws IllegalStateException if BlockHound was never installed
+     */
+    public static synchronized void reinstall() {
+        Builder builder = lastInstallation;
+        if (builder == null) {
+            throw new IllegalStateException("BlockHound was never installed");
+        }
+
+        builder.install();
+    }
+
+    /**
+     * Reconfigures the installed BlockHound, e.g. to apply the integration of a plugin loaded at runtime:
+     * <pre>
+     * BlockHound.reconfigure(builder -&gt; builder.with(new PluginIntegration()));
+     * </pre>
+     * The configurer is applied to a copy of the installed builder, then the added blocking methods,
+     * the added or changed (dis-)allowances and the changed non-blocking thread predicates are applied.
+     * Only the loaded classes whose configuration has changed are retransformed, in a single batch.
+     * The other settings of the builder (callback, sampling...) are ignored.
+     *
+     * @param configurer a configurer of the installed builder
+     * @throws IllegalStateException if BlockHound is not installed, or detects the blocking calls with JFR event streaming
+     */
+    public static synchronized void reconfigure(Consumer<Builder> configurer) {
+        Builder builder = lastInstallation;
+        if (builder == null || !INITIALIZED.get()) {
+            throw new IllegalStateException("BlockHound is not installed");
+        }
+
+        builder.reconfigure(configurer);
+    }
+
+    /**
+     * @return whether BlockHound is currently installed
+     */
+    public static boolean isInstalled() {
+        return INITIALIZED.get();
+    }
+
+    /**
+     * Invalidates the cached classification of the provided dynamic thread, so that
+     * the non-blocking thread predicate is re-evaluated on its next blocking call.
+     * Has no effect unless {@link Builder#cacheDynamicThreadClassification(boolean)} is enabled.
+     *
+     * Since the classification is stored per thread, only the current thread can be invalidated individually.
+     * For any other thread, this method falls back to {@link #invalidateThreadClassifications()}.
+     *
+     * @param thread a dynamic thread which role has changed
+     */
+    public static void invalidateThreadClassification(Thread thread) {
+        if (!INITIALIZED.get()) {
+            return;
+        }
+
+        if (thread == Thread.currentThread()) {
+            BlockHoundRuntime.invalidateClassification();
+        }
+        else {
+            BlockHoundRuntime.invalidateClassifications();
+        }
+    }
+
+    /**
+     * Invalidates the cached classification of all dynamic threads, so that
+     * the non-blocking thread predicate is re-evaluated on their next blocking call.
+     * Has no effect unless {@link Builder#cacheDynamicThreadClassification(boolean)} is enabled.
+     */
+    public static void invalidateThreadClassifications() {
+        if (!INITIALIZED.get()) {
+            return;
+        }
+
+        BlockHoundRuntime.invalidateClassifications();
+    }
+
+    /**
+     * Allows the blocking calls made by the provided callable, like {@link Builder#allowBlockingCallsInside(String, String)}
+     * does for a method, but without instrumenting anything. The methods disallowed with
+     * {@link Builder#disallowBlockingCallsInside(String, String)} still report their blocking calls.
+     * <p>
+     * On JDK 21+, the allowance is also bound to a {@code ScopedValue}, hence inherited by the threads forked inside
+     * the callable by a {@code StructuredTaskScope}, where the disallowed methods are not honored though.
+     * Has no effect with {@link Builder#jfrStreaming(Duration)}.
+     *
+     * @param callable the callable whose blocking calls are allowed
+     * @param <T> the type of the result
+     * @return the result of the callable
+     * @throws Exception if the callable throws
+     */
+    public static <T> T allowBlocking(Callable<T> callable) throws Exception {
+        if (!BOOTSTRAP_CLASSES_INJECTED.get()) {
+            // BlockHoundRuntime must not be loaded before it is injected
+            return callable.call();
+        }
+
+        BlockHoundRuntime.State state = BlockHoundRuntime.currentState();
+        boolean changed = state.isChecked() && !state.isAllowed();
+        if (changed) {
+            state.setAllowed(true);
+        }
+        try {
+            return AllowedScopes.call(callable);
+        }
+        finally {
+            if (changed) {
+                state.setAllowed(false);
+            }
+        }
+    }
+
+    /**
+     * Allows the blocking calls made by the provided runnable, see {@link #allowBlocking(Callable)}.
+     *
+     * @param runnable the runnable whose blocking calls are allowed
+     */
+    public static void allowBlocking(Runnable runnable) {
+        try {
+            allowBlocking(() -> {
+                runnable.run();
+                return null;
+            });
+        }
+        catch (RuntimeException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            // Runnable can't throw checked exceptions
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Changes the sampling interval of an installed BlockHound.
+     *
+     * @param interval check one in {@code interval} blocking calls on average, 1 to check every call
+     * @see Builder#samplingInterval(int)
+     */
+    public static void setSamplingInterval(int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be greater than or equal to 1, was " + interval);
+        }
+        if (!INITIALIZED.get()) {
+            return;
+        }
+
+        BlockHoundRuntime.samplingInterval = interval;
+    }
+
+    /**
+     * @return the current sampling interval, 1 if every blocking call is checked or BlockHound is not installed.
+     * @see Builder#samplingInterval(int)
+     */
+    public static int getSamplingInterval() {
+        if (!INITIALIZED.get()) {
+            return 1;
+        }
+
+        return BlockHoundRuntime.samplingInterval;
+    }
+
+    /**
+     * @return the duration of every phase of the last installation, empty if BlockHound was never installed
+     * or detects the blocking calls with JFR event streaming
+     */
+    public static Map<InstallationPhase, Duration> getInstallationTimings() {
+        return installationTimings;
+    }
+
+    /**
+     * @return the number of blocking calls dropped because the buffer of the asynchronous reporting was full,
+     * 0 if the asynchronous reporting is disabled or does not count them.
+     * @see Builder#asyncReporting(int, OverflowStrategy)
+     */
+    public static long getDroppedBlockingCallCount() {
+        AsyncBlockingCallReporter reporter = asyncReporter;
+        return reporter != null ? reporter.getDroppedCount() : 0;
+    }
+
+    /**
+     * @return the number of timed blocking calls that were shorter than the minimum duration and therefore not reported
+     * @see Builder#measureBlockingCallDuration(Duration)
+     */
+    public static long getSuppressedBlockingCallCount() {
+        if (!INITIALIZED.get()) {
+            return 0;
+        }
+
+        return BlockHoundRuntime.suppressedBlockingCalls.sum();
+    }
+
+    /**
+     * @return the durations of the blocking calls per blocking method since the previous reset,
+     * empty if the durations are not recorded by the current installation
+     * @see Builder#recordBlockingCallDurations(int)
+     */
+    public static List<BlockingCallDurations> getBlockingMethodDurations() {
+        BlockingCallDurationRecorder recorder = durationRecorder;
+        return recorder != null ? recorder.snapshotMethods(false) : Collections.emptyList();
+    }
+
+    /**
+     * @return the durations of the blocking calls per call site since the previous reset,
+     * empty if the durations are not recorded per call site by the current installation
+     * @see Builder#recordBlockingCallDurations(int)
+     */
+    public static List<BlockingCallDurations> getBlockingCallSiteDurations() {
+        BlockingCallDurationRecorder recorder = durationRecorder;
+        return recorder != null ? recorder.snapshotCallSites(false) : Collections.emptyList();
+    }
+
+    /**
+     * Clears the recorded durations of the blocking calls, e.g. after a warmup.
+     *
+     * @see Builder#recordBlockingCallDurations(int)
+     */
+    public static void resetBlockingCallDurations() {
+        BlockingCallDurationRecorder recorder = durationRecorder;
+        if (recorder != null) {
+            recorder.snapshotMethods(true);
+            recorder.snapshotCallSites(true);
+        }
     }
 
     private BlockHound() {
 
     }
 
+    /**
+     * What to do with the blocking calls detected while the buffer of the asynchronous reporting is full.
+     *
+     * @see Builder#asyncReporting(int, OverflowStrategy)
+     */
+    public enum OverflowStrategy {
+
+        /**
+         * Drops the blocking call.
+         */
+        DROP,
+
+        /**
+         * Drops the blocking call and counts it, see {@link BlockHound#getDroppedBlockingCallCount()}.
+         */
+        DROP_AND_COUNT,
+    }
+
+    /**
+     * How the blocking calls are reported, can be changed at runtime with {@link BlockHoundMXBean#setReportingMode(ReportingMode)}.
+     *
+     * @see Builder#registerMBean(boolean)
+     */
+    public enum ReportingMode {
+
+        /**
+         * Calls the {@link Builder#blockingMethodCallback(Consumer)}, which throws {@link BlockingOperationError} by default.
+         */
+        CALLBACK,
+
+        /**
+         * Prints a {@link BlockingOperationError} to the standard error.
+         */
+        LOG,
+
+        /**
+         * Only counts the blocking call.
+         */
+        COUNT,
+    }
+
+    /**
+     * The consecutive phases of an installation with instrumentation, see {@link #getInstallationTimings()}.
+     */
+    public enum InstallationPhase {
+
+        /**
+         * Obtaining the {@link Instrumentation}, i.e. self-attaching unless provided with {@link Builder#with(Instrumentation)}.
+         */
+        ATTACH,
+
+        /**
+         * Injecting the runtime classes into the bootstrap class loader, only done by the first installation.
+         */
+        BOOTSTRAP_INJECTION,
+
+        /**
+         * Finding the loaded classes to instrument.
+         */
+        DISCOVERY,
+
+        /**
+         * Registering the transformers and retransforming the loaded classes.
+         */
+        INSTRUMENTATION,
+
+        /**
+         * Verifying that a blocking call is detected.
+         */
+        VERIFICATION,
+
+        /**
+         * Publishing the configuration to the runtime and starting the reporting.
+         */
+        ACTIVATION,
+    }
+
     private static final class BlockHoundPoolStrategy implements PoolStrategy {
 
         public static final PoolStrategy INSTANCE = new BlockHoundPoolStrategy();
@@ -133,7 +514,18 @@ public class BlockHound {
 
     public static class Builder {
 
-        private final Map<String, Map<String, Set<String>>> blockingMethods = new HashMap<String, Map<String, Set<String>>>() {{
+        static final String[] JFR_BLOCKING_EVENTS = {
+                "jdk.ThreadPark",
+                "jdk.JavaMonitorWait",
+                "jdk.ThreadSleep",
+                "jdk.SocketRead",
+                "jdk.SocketWrite",
+                "jdk.FileRead",
+                "jdk.FileWrite",
+        };
+
+        // Replaced (not modified) by a reconfiguration, since the transformers may read it concurrently
+        private volatile Map<String, Map<String, Set<String>>> blockingMethods = new HashMap<String, Map<String, Set<String>>>() {{
             put("java/lang/Object", new HashMap<String, Set<String>>() {{
                 put("wait", singleton("(J)V"));
             }});
@@ -237,7 +629,8 @@ public class BlockHound {
             }
         }};
 
-        private final Map<String, Map<String, Boolean>> allowances = new HashMap<String, Map<String, Boolean>>() {{
+        // Replaced (not modified) by a reconfiguration, since the transformers may read it concurrently
+        private volatile Map<String, Map<String, Boolean>> allowances = new HashMap<String, Map<String, Boolean>>() {{
             put(ClassLoader.class.getName(), new HashMap<String, Boolean>() {{
                 put("loadClass", true);
             }});
@@ -257,21 +650,13 @@ public class BlockHound {
         private Consumer<BlockingMethod> onBlockingMethod = method -> {
             Error error = new BlockingOperationError(method);
 
-            // Strip BlockHound's internal noisy frames from the stacktrace to not mislead the users
-            StackTraceElement[] stackTrace = error.getStackTrace();
-            int length = stackTrace.length;
-            for (int i = 0; i < length; i++) {
-                StackTraceElement stackTraceElement = stackTrace[i];
-                if (!BlockHoundRuntime.class.getName().equals(stackTraceElement.getClassName())) {
-                    continue;
-                }
-
-                if ("checkBlocking".equals(stackTraceElement.getMethodName())) {
-                    if (i + 1 < length) {
-                        error.setStackTrace(Arrays.copyOfRange(stackTrace, i + 1, length));
-                    }
-                    break;
-                }
+            if (this.stackTraceDepth > 0) {
+                // Only create the StackTraceElements of the top frames
+                error.setStackTrace(BlockingStackTraces.capture(this.stackTraceDepth).toStackTrace());
+            }
+            else {
+                // Strip BlockHound's internal noisy frames from the stacktrace to not mislead the users
+                error.setStackTrace(BlockingStackTraces.strip(error.getStackTrace()));
             }
 
             throw error;
@@ -281,8 +666,64 @@ public class BlockHound {
 
         private Predicate<Thread> dynamicThreadPredicate = t -> false;
 
+        private boolean cacheDynamicThreadClassification = false;
+
+        private int samplingInterval = 1;
+
+        private int stackTraceDepth = 0;
+
+        private int deduplicationStackDepth = 0;
+
+        private Duration deduplicationSummaryInterval;
+
+        private Consumer<List<BlockingCallSite>> deduplicationSummaryConsumer;
+
+        private Duration minimumBlockingCallDuration;
+
+        private int durationRecordingStackDepth = -1;
+
+        private boolean registerMBean = false;
+
+        private boolean emitJfrEvents = false;
+
+        private boolean reportPinnedVirtualThreads = false;
+
+        private final Map<String, Duration> jfrThresholds = new LinkedHashMap<>();
+
+        private int asyncReportingCapacity = 0;
+
+        private OverflowStrategy asyncReportingOverflowStrategy;
+
         private Instrumentation configuredInstrumentation;
 
+        private Instrumentation installedInstrumentation;
+
+        private BlockingMethodRegistry installedRegistry;
+
+        private volatile ClassNameIndex instrumentedClassNames;
+
+        private final Set<String> spinWaitCallSitePackages = new LinkedHashSet<>();
+
+        /**
+         * The packages instrumented by the call-site engine, none with the default engine, see {@link #instrumentCallSites(String...)}.
+         */
+        private final Set<String> callSitePackages = new LinkedHashSet<>();
+
+        /**
+         * The methods checked at their call sites instead of being instrumented, see {@link CallSiteBlockingCallsTransformer}.
+         */
+        private volatile Map<String, Map<String, Set<String>>> callSiteMethods = Collections.emptyMap();
+
+        private Path transformedClassCacheDirectory;
+
+        private TransformedClassCache installedClassCache;
+
+        private final List<ClassFileTransformer> installedTransformers = new ArrayList<>();
+
+        private Consumer<BlockingMethod> installedCallback;
+
+        private BlockingCallStatistics installedStatistics;
+
         /**
          * Marks provided method of the provided class as "blocking".
          *
@@ -375,6 +816,229 @@ public class BlockHound {
             return this;
         }
 
+        /**
+         * Limits the stacktrace of the {@link BlockingOperationError} thrown by the default callback
+         * to the top {@code maxDepth} frames.
+         *
+         * On JDK 11+, the stack is walked with {@code StackWalker} that skips BlockHound's internal frames,
+         * stops after {@code maxDepth} frames and only creates the {@link StackTraceElement}s of the kept frames,
+         * which is much cheaper than getting the full stacktrace for deep stacks (e.g. with Reactor).
+         * On older JDKs, the full stacktrace is taken and truncated.
+         * The same bounded stack walking is used by {@link #deduplicateCallSites(int)}.
+         *
+         * @param maxDepth the maximum number of frames of the reported stacktraces
+         * @return this
+         */
+        public Builder stackTraceDepth(int maxDepth) {
+            if (maxDepth < 1) {
+                throw new IllegalArgumentException("maxDepth must be greater than or equal to 1, was " + maxDepth);
+            }
+            this.stackTraceDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * Only reports the first blocking call of every call site to the {@link #blockingMethodCallback(Consumer)}.
+         * Subsequent blocking calls from the same call site are only counted.
+         *
+         * This is mostly useful with a non-throwing callback, to avoid flooding the logs
+         * when a blocking call happens in a hot loop.
+         *
+         * @param stackDepth the number of the top stacktrace frames identifying a call site
+         * @return this
+         * @see #deduplicateCallSites(int, Duration, Consumer)
+         */
+        public Builder deduplicateCallSites(int stackDepth) {
+            return deduplicateCallSites(stackDepth, null, null);
+        }
+
+        /**
+         * Only reports the first blocking call of every call site to the {@link #blockingMethodCallback(Consumer)}.
+         * Subsequent blocking calls from the same call site are only counted, and the call sites with new blocking calls
+         * are periodically passed to the provided summary consumer.
+         *
+         * The summary is emitted by the first blocking call detected after the interval has elapsed,
+         * on the thread of that blocking call.
+         *
+         * @param stackDepth the number of the top stacktrace frames identifying a call site
+         * @param summaryInterval the minimum interval between two summaries
+         * @param summaryConsumer a consumer of the call sites with new blocking calls since the previous summary
+         * @return this
+         */
+        public Builder deduplicateCallSites(
+                int stackDepth,
+                Duration summaryInterval,
+                Consumer<List<BlockingCallSite>> summaryConsumer
+        ) {
+            if (stackDepth < 1) {
+                throw new IllegalArgumentException("stackDepth must be greater than or equal to 1, was " + stackDepth);
+            }
+            this.deduplicationStackDepth = stackDepth;
+            this.deduplicationSummaryInterval = summaryInterval;
+            this.deduplicationSummaryConsumer = summaryConsumer;
+            return this;
+        }
+
+        /**
+         * Measures the duration of the blocking calls, see {@link BlockingMethod#getDurationNanos()},
+         * and only reports the ones that took at least {@code minimumDuration}.
+         * The shorter blocking calls are only counted, see {@link BlockHound#getSuppressedBlockingCallCount()}.
+         *
+         * The blocking calls are then reported once they have completed instead of before they start,
+         * which means that the default callback throws after the blocking operation has been performed.
+         *
+         * @param minimumDuration the minimum duration of the reported blocking calls, {@link Duration#ZERO} to report all of them
+         * @return this
+         */
+        public Builder measureBlockingCallDuration(Duration minimumDuration) {
+            if (minimumDuration.isNegative()) {
+                throw new IllegalArgumentException("minimumDuration must not be negative, was " + minimumDuration);
+            }
+            this.minimumBlockingCallDuration = minimumDuration;
+            return this;
+        }
+
+        /**
+         * Records the durations of the blocking calls in fixed-size histograms per blocking method and,
+         * when {@code callSiteStackDepth} is positive, per call site (identified by the top {@code callSiteStackDepth} frames).
+         * They can be retrieved with {@link BlockHound#getBlockingMethodDurations()} and
+         * {@link BlockHound#getBlockingCallSiteDurations()}, and cleared with {@link BlockHound#resetBlockingCallDurations()}.
+         *
+         * This measures the duration of the blocking calls like {@link #measureBlockingCallDuration(Duration)} with
+         * {@link Duration#ZERO} (unless configured otherwise), and the calls shorter than the minimum duration are recorded too.
+         * Recording does not lock nor allocate, but identifying the call site walks the top frames of the stack.
+         *
+         * @param callSiteStackDepth the number of the top stacktrace frames identifying a call site, 0 to only record per blocking method
+         * @return this
+         */
+        public Builder recordBlockingCallDurations(int callSiteStackDepth) {
+            if (callSiteStackDepth < 0) {
+                throw new IllegalArgumentException("callSiteStackDepth must be greater than or equal to 0, was " + callSiteStackDepth);
+            }
+            this.durationRecordingStackDepth = callSiteStackDepth;
+            return this;
+        }
+
+        /**
+         * Reports the blocking calls asynchronously: instead of calling the {@link #blockingMethodCallback(Consumer)}
+         * on the thread that made the blocking call, the detected call is published to a bounded buffer,
+         * drained by a dedicated "blockhound-reporter" daemon thread that calls the callback.
+         *
+         * Publishing does not allocate nor block, which is useful with a callback that logs or records metrics.
+         * Since the callback is not called on the thread that made the blocking call,
+         * the stacktrace of the blocking call is not available (and throwing from the callback has no effect),
+         * which also makes it incompatible with {@link #deduplicateCallSites(int)}.
+         *
+         * @param capacity the maximum number of the blocking calls waiting to be reported, rounded up to a power of 2
+         * @param overflowStrategy what to do with the blocking calls detected while the buffer is full
+         * @return this
+         */
+        public Builder asyncReporting(int capacity, OverflowStrategy overflowStrategy) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("capacity must be greater than or equal to 1, was " + capacity);
+            }
+            if (capacity > 1 << 30) {
+                throw new IllegalArgumentException("capacity must be less than or equal to 2^30, was " + capacity);
+            }
+            this.asyncReportingCapacity = capacity;
+            this.asyncReportingOverflowStrategy = Objects.requireNonNull(overflowStrategy, "overflowStrategy");
+            return this;
+        }
+
+        /**
+         * Registers a {@value BlockHoundMXBean#OBJECT_NAME} MBean, see {@link BlockHoundMXBean},
+         * that exposes counters of the checked, allowed and reported blocking calls,
+         * and allows changing the {@link ReportingMode} and the sampling interval at runtime.
+         *
+         * The counters are striped to not make the non-blocking threads contend on them,
+         * but counting the checks still adds some overhead to every blocking call.
+         *
+         * @param enabled whether the MBean should be registered
+         * @return this
+         */
+        public Builder registerMBean(boolean enabled) {
+            this.registerMBean = enabled;
+            return this;
+        }
+
+        /**
+         * Emits a {@code reactor.blockhound.BlockingCall} JFR event for every reported blocking call,
+         * with the blocking method, the thread, the stacktrace, the sampling interval and the duration
+         * (see {@link #measureBlockingCallDuration(Duration)}) of the call.
+         * The event is emitted whatever the callback does, and costs almost nothing while it is not enabled in a recording.
+         *
+         * Has no effect on JDK 8, since JFR events require JDK 11+.
+         *
+         * @param enabled whether the JFR events should be emitted
+         * @return this
+         */
+        public Builder emitJfrEvents(boolean enabled) {
+            this.emitJfrEvents = enabled;
+            return this;
+        }
+
+        /**
+         * Reports the virtual threads that block while they are pinned to their carrier thread (JDK 21+).
+         * <p>
+         * Blocking is fine on a virtual thread, that unmounts from its carrier thread, hence the blocking calls
+         * of the virtual threads are never reported, without even looking up their state.
+         * But a virtual thread can't unmount while it is pinned (inside {@code synchronized} or a native frame), and
+         * then parks its carrier thread, that the other virtual threads can't use anymore. When enabled, the virtual threads
+         * are non-blocking, but only their {@code Unsafe.park} calls (that they only make while pinned) and their
+         * {@link Object#wait()} calls (that always pin them before JDK 24) are reported, unless allowed.
+         *
+         * Has no effect before JDK 21.
+         *
+         * @param enabled whether the blocking calls of the pinned virtual threads should be reported
+         * @return this
+         */
+        public Builder reportPinnedVirtualThreads(boolean enabled) {
+            this.reportPinnedVirtualThreads = enabled;
+            return this;
+        }
+
+        /**
+         * Detects the blocking calls from JFR events instead of instrumenting the blocking methods (JDK 14+):
+         * the {@code jdk.ThreadPark}, {@code jdk.JavaMonitorWait}, {@code jdk.ThreadSleep}, {@code jdk.SocketRead},
+         * {@code jdk.SocketWrite}, {@code jdk.FileRead} and {@code jdk.FileWrite} events that took at least {@code threshold}
+         * are streamed, and the ones of the non-blocking threads are passed to the {@link #blockingMethodCallback(Consumer)}.
+         *
+         * This has almost no overhead on the threads, but the blocking calls shorter than {@code threshold} are missed,
+         * and the callback is called on the thread of the JFR stream, after the blocking call has completed.
+         * The allowances are applied to the stacktrace of the events, and the non-blocking thread predicate
+         * is evaluated when the event is received, so every thread behaves as a dynamic one and
+         * the {@link #dynamicThreadPredicate(Function)} is ignored.
+         * The markers ({@link #markAsBlocking(Class, String, String)}) and the options that rely on the instrumentation
+         * (sampling, duration measurement, stacktrace depth...) have no effect.
+         *
+         * @param threshold the minimum duration of the detected blocking calls
+         * @return this
+         * @see #jfrStreaming(String, Duration)
+         */
+        public Builder jfrStreaming(Duration threshold) {
+            for (String eventName : JFR_BLOCKING_EVENTS) {
+                jfrStreaming(eventName, threshold);
+            }
+            return this;
+        }
+
+        /**
+         * Detects the blocking calls from the JFR events with the provided name (e.g. {@code jdk.SocketRead})
+         * that took at least {@code threshold}, see {@link #jfrStreaming(Duration)}.
+         * Can be called multiple times to stream several events or change their threshold.
+         *
+         * @param eventName the name of a JFR event with a duration, a thread and a stacktrace
+         * @param threshold the minimum duration of the detected blocking calls
+         * @return this
+         */
+        public Builder jfrStreaming(String eventName, Duration threshold) {
+            if (threshold.isNegative()) {
+                throw new IllegalArgumentException("threshold must not be negative, was " + threshold);
+            }
+            jfrThresholds.put(Objects.requireNonNull(eventName, "eventName"), threshold);
+            return this;
+        }
+
         /**
          * Replaces the current non-blocking thread predicate with the result of applying the provided function.
          *
@@ -393,6 +1057,7 @@ public class BlockHound {
 
         /**
          * Replaces the current dynamic thread predicate with the result of applying the provided function.
+         * Ignored with {@link #jfrStreaming(Duration)}, where every thread is dynamic.
          *
          * Warning! Consider always using {@link Predicate#or(Predicate)} and not override the previous one:
          * <code>
@@ -417,6 +1082,95 @@ public class BlockHound {
             return dynamicThreadPredicate(p -> p.or(predicate));
         }
 
+        /**
+         * Enables the caching of the non-blocking thread predicate's result for dynamic threads.
+         *
+         * By default, the non-blocking thread predicate is evaluated on every blocking call of a dynamic thread.
+         * When enabled, the result is cached per thread until it is invalidated with
+         * {@link BlockHound#invalidateThreadClassification(Thread)} or {@link BlockHound#invalidateThreadClassifications()},
+         * which the code changing the role of a dynamic thread must call.
+         *
+         * @param enabled whether the classification of dynamic threads should be cached
+         * @return this
+         */
+        public Builder cacheDynamicThreadClassification(boolean enabled) {
+            this.cacheDynamicThreadClassification = enabled;
+            return this;
+        }
+
+        /**
+         * Only checks one in {@code interval} blocking calls on average, which lowers the overhead
+         * enough to keep BlockHound enabled outside of tests (e.g. with a non-throwing {@link #blockingMethodCallback(Consumer)}).
+         *
+         * The decision is made per call with a thread-local pseudo-random generator.
+         * The interval can be changed after the installation with {@link BlockHound#setSamplingInterval(int)},
+         * and is reported by {@link BlockingMethod#getSamplingInterval()}.
+         *
+         * @param interval check one in {@code interval} blocking calls on average, 1 (the default) to check every call
+         * @return this
+         */
+        public Builder samplingInterval(int interval) {
+            if (interval < 1) {
+                throw new IllegalArgumentException("interval must be greater than or equal to 1, was " + interval);
+            }
+            this.samplingInterval = interval;
+            return this;
+        }
+
+        /**
+         * Detects the calls to {@link Thread#onSpinWait()} at their call sites, in the classes of the provided packages
+         * (and their sub-packages), instead of instrumenting {@code Thread.onSpinWait()} itself.
+         * The spin-waits of the other classes (e.g. of the JDK, JCTools, Disruptor or Netty) then keep their intrinsic
+         * and do not pay for the check at all, but they are not detected either.
+         *
+         * The call sites are checked without measuring the duration, see {@link #measureBlockingCallDuration(Duration)}.
+         *
+         * @param packageNames the packages whose spin-waits are detected, e.g. "com.example"
+         * @return this
+         */
+        public Builder detectSpinWaitsAtCallSites(String... packageNames) {
+            for (String packageName : packageNames) {
+                spinWaitCallSitePackages.add(toPackagePrefix(packageName));
+            }
+            return this;
+        }
+
+        /**
+         * Selects the call-site engine: instead of instrumenting the blocking methods (and wrapping the native ones
+         * of the JDK), the invocations of the blocking methods are checked at their call sites, when the classes
+         * of the provided packages (and their sub-packages) are loaded. Only these classes pay for the checks,
+         * the blocking classes of the JDK stay untouched, and {@code -XX:+AllowRedefinitionToAddDeleteMethods}
+         * is not needed on JDK 13+. The classes with (dis-)allowances are still instrumented, including the JDK classes
+         * of the default allowances (e.g. {@code ClassLoader}, {@code Throwable} or {@code ConcurrentHashMap}),
+         * since the allowances are applied by the allowed methods themselves.
+         * <p>
+         * Since the call sites invoke the public API and not the private native methods of the JDK,
+         * the public methods that end up in the default blocking methods (e.g. {@code Thread.sleep(long)}) are checked,
+         * in addition to the ones marked with {@link #markAsBlocking(String, String, String)}.
+         * The blocking calls of the other packages (including the JDK itself, e.g. {@code FutureTask.get()})
+         * and the invocations through a super type (e.g. {@code InputStream.read()} on a {@code FileInputStream})
+         * are not detected, and the durations can't be measured, see {@link #measureBlockingCallDuration(Duration)}.
+         *
+         * @param packageNames the packages whose blocking calls are detected, e.g. "com.example"
+         * @return this
+         */
+        public Builder instrumentCallSites(String... packageNames) {
+            if (packageNames.length == 0) {
+                throw new IllegalArgumentException("At least one package is required");
+            }
+            for (String packageName : packageNames) {
+                callSitePackages.add(toPackagePrefix(packageName));
+            }
+            return this;
+        }
+
+        private static String toPackagePrefix(String packageName) {
+            if (packageName.isEmpty() || packageName.endsWith(".")) {
+                throw new IllegalArgumentException("Invalid package name '" + packageName + "'");
+            }
+            return packageName.replace('.', '/') + "/";
+        }
+
         /**
          * Loads integrations with {@link ServiceLoader} and adds provided integrations
          * using {{@link #with(BlockHoundIntegration)}}.
@@ -447,6 +1201,23 @@ public class BlockHound {
             return this;
         }
 
+        /**
+         * Caches the transformed class files in the provided directory, so that the next JVMs with the same configuration
+         * (and the same JDK and BlockHound versions) load them instead of transforming the classes again,
+         * e.g. to reduce the installation time of many forked test JVMs. The directory can be shared by concurrent JVMs.
+         *
+         * The class files are stored under the hash of their original bytes and of the configuration,
+         * so that the outdated ones are never used, but they are not deleted either.
+         * The cache is not used after a {@link BlockHound#reconfigure(Consumer) reconfiguration}.
+         *
+         * @param directory the directory of the cached class files, created if needed
+         * @return this
+         */
+        public Builder cacheTransformedClasses(Path directory) {
+            this.transformedClassCacheDirectory = Objects.requireNonNull(directory, "directory");
+            return this;
+        }
+
         /**
          * Configure the {@link Instrumentation} to use. If not provided, {@link ByteBuddyAgent#install()} is used.
          *
@@ -465,27 +1236,67 @@ public class BlockHound {
          * Installs the agent and runs the instrumentation, but only if BlockHound wasn't installed yet (it is global).
          */
         public void install() {
+            if (asyncReportingCapacity > 0 && deduplicationStackDepth > 0) {
+                throw new IllegalStateException("asyncReporting can't be combined with deduplicateCallSites");
+            }
+
+            if (!jfrThresholds.isEmpty()) {
+                if (asyncReportingCapacity > 0 || deduplicationStackDepth > 0) {
+                    throw new IllegalStateException("jfrStreaming can't be combined with asyncReporting nor deduplicateCallSites");
+                }
+                if (!JfrBlockingCallDetector.isSupported()) {
+                    throw new IllegalStateException("jfrStreaming requires JDK 14+");
+                }
+            }
+
+            if (!callSitePackages.isEmpty() && (minimumBlockingCallDuration != null || durationRecordingStackDepth >= 0)) {
+                throw new IllegalStateException("The durations of the blocking calls can't be measured by the call-site engine");
+            }
+
             if (!INITIALIZED.compareAndSet(false, true)) {
                 return;
             }
 
+            lastInstallation = this;
+
+            if (!jfrThresholds.isEmpty()) {
+                // No instrumentation at all, hence no BlockHoundRuntime
+                JfrBlockingCallDetector.start(jfrThresholds, allowances, threadPredicate, onBlockingMethod);
+                return;
+            }
+
+            if (durationRecordingStackDepth >= 0 && minimumBlockingCallDuration == null) {
+                minimumBlockingCallDuration = Duration.ZERO;
+            }
+
+            InstallationTimer timer = new InstallationTimer();
             Consumer<BlockingMethod> originalOnBlockingMethod = onBlockingMethod;
+            installedCallback = originalOnBlockingMethod;
+            BlockingMethodRegistry registry = new BlockingMethodRegistry();
+            installedRegistry = registry;
             try {
                 Instrumentation instrumentation = configuredInstrumentation == null ?
                         ByteBuddyAgent.install() : configuredInstrumentation;
-                InstrumentationUtils.injectBootstrapClasses(
-                        instrumentation,
-                        BLOCK_HOUND_RUNTIME_TYPE.getInternalName(),
-                        "reactor/blockhound/BlockHoundRuntime$State"
-                );
+                installedInstrumentation = instrumentation;
+                timer.endPhase(InstallationPhase.ATTACH);
+                // The bootstrap classes can't be removed, they are reused by the subsequent installations
+                if (BOOTSTRAP_CLASSES_INJECTED.compareAndSet(false, true)) {
+                    InstrumentationUtils.injectBootstrapClasses(
+                            instrumentation,
+                            BLOCK_HOUND_RUNTIME_TYPE.getInternalName(),
+                            "reactor/blockhound/BlockHoundRuntime$State",
+                            "reactor/blockhound/BlockHoundRuntime$BlockingCallConsumer",
+                            "reactor/blockhound/BlockHoundRuntime$DurationRecorder",
+                            "reactor/blockhound/VirtualThreads",
+                            "reactor/blockhound/AllowedScopes"
+                    );
+                    timer.endPhase(InstallationPhase.BOOTSTRAP_INJECTION);
+                }
 
                 // Since BlockHoundRuntime is injected into the bootstrap classloader,
-                // we use raw Object[] here instead of `BlockingMethod` to avoid classloading issues
-                BlockHoundRuntime.blockingMethodConsumer = args -> {
-                    String className = (String) args[0];
-                    String methodName = (String) args[1];
-                    int modifiers = (Integer) args[2];
-                    onBlockingMethod.accept(new BlockingMethod(className, methodName, modifiers));
+                // we use raw Object here instead of `BlockingMethod` to avoid classloading issues
+                BlockHoundRuntime.blockingMethodConsumer = (method, interval, duration) -> {
+                    onBlockingMethod.accept(((BlockingMethod) method).withDetails(interval, duration));
                 };
 
                 onBlockingMethod = m -> {
@@ -497,13 +1308,14 @@ public class BlockHound {
                 BlockHoundRuntime.dynamicThreadPredicate = t -> false;
                 BlockHoundRuntime.threadPredicate = TestThread.class::isInstance;
 
-                instrument(instrumentation);
+                instrument(instrumentation, registry, timer);
             }
             catch (Throwable e) {
                 throw new RuntimeException(e);
             }
 
             testInstrumentation();
+            timer.endPhase(InstallationPhase.VERIFICATION);
 
             // Eagerly trigger the classloading of `dynamicThreadPredicate` (since classloading is blocking)
             dynamicThreadPredicate.test(Thread.currentThread());
@@ -513,10 +1325,173 @@ public class BlockHound {
             threadPredicate.test(Thread.currentThread());
             BlockHoundRuntime.threadPredicate = threadPredicate;
 
+            BlockHoundRuntime.classificationEpoch = cacheDynamicThreadClassification ? 0 : -1;
+
+            // Eagerly trigger the initialization of the sampling's random generator
+            ThreadLocalRandom.current().nextInt(samplingInterval);
+            BlockHoundRuntime.samplingInterval = samplingInterval;
+
+            // Always assigned, so that a previous installation's configuration does not leak into this one
+            BlockHoundRuntime.minimumDurationNanos = minimumBlockingCallDuration != null ? minimumBlockingCallDuration.toNanos() : 0;
+
+            if (durationRecordingStackDepth >= 0) {
+                BlockingCallDurationRecorder recorder = new BlockingCallDurationRecorder(
+                        registry.size(),
+                        durationRecordingStackDepth
+                );
+                durationRecorder = recorder;
+                recorder.start();
+            }
+            else {
+                durationRecorder = null;
+                BlockHoundRuntime.durationRecorder = null;
+            }
+
             onBlockingMethod = originalOnBlockingMethod;
+            if (deduplicationStackDepth > 0) {
+                onBlockingMethod = new CallSiteDeduplicator(
+                        onBlockingMethod,
+                        deduplicationStackDepth,
+                        deduplicationSummaryInterval != null ? deduplicationSummaryInterval.toNanos() : 0,
+                        deduplicationSummaryConsumer
+                );
+            }
+            else if (asyncReportingCapacity > 0) {
+                AsyncBlockingCallReporter reporter = new AsyncBlockingCallReporter(
+                        onBlockingMethod,
+                        asyncReportingCapacity,
+                        asyncReportingOverflowStrategy
+                );
+                asyncReporter = reporter;
+                reporter.start();
+            }
+
+            if (registerMBean) {
+                BlockingCallStatistics statistics = new BlockingCallStatistics();
+                statistics.start();
+                installedStatistics = statistics;
+            }
+
+            if (emitJfrEvents && BlockingCallEvents.isSupported()) {
+                BlockingCallEvents.start();
+            }
+
+            BlockHoundRuntime.pinningMethodIds = reportPinnedVirtualThreads ? findPinningMethodIds(registry) : null;
+
+            // Re-evaluate the threads' states after assigning user-provided predicates, since the running threads
+            // (e.g. when attached to a running JVM, or reinstalled) may have been classified with the test predicate
+            BlockHoundRuntime.resetState();
+
+            timer.endPhase(InstallationPhase.ACTIVATION);
+            installationTimings = timer.getTimings();
+        }
+
+        /**
+         * Stops reporting the blocking calls, removes the transformers and retransforms the instrumented classes,
+         * see {@link BlockHound#uninstall()}.
+         */
+        void uninstall() {
+            if (!jfrThresholds.isEmpty()) {
+                JfrBlockingCallDetector.stop();
+                return;
+            }
+
+            // The blocking calls in progress may still call BlockHoundRuntime after the retransformation
+            BlockHoundRuntime.blockingMethodConsumer = (method, interval, duration) -> {};
+            BlockHoundRuntime.durationRecorder = null;
+            BlockHoundRuntime.minimumDurationNanos = 0;
+            BlockHoundRuntime.countChecks = false;
+            durationRecorder = null;
+
+            AsyncBlockingCallReporter reporter = asyncReporter;
+            if (reporter != null) {
+                reporter.stop();
+                asyncReporter = null;
+            }
+
+            if (installedStatistics != null) {
+                installedStatistics.stop();
+                installedStatistics = null;
+            }
+
+            onBlockingMethod = installedCallback;
+
+            Instrumentation instrumentation = installedInstrumentation;
+            for (ClassFileTransformer transformer : installedTransformers) {
+                instrumentation.removeTransformer(transformer);
+            }
+            installedTransformers.clear();
+
+            try {
+                instrumentation.retransformClasses(findInstrumentedClasses(instrumentation));
+            }
+            catch (UnmodifiableClassException e) {
+                throw new IllegalStateException("Failed to restore the instrumented classes", e);
+            }
+        }
+
+        /**
+         * Applies the configurer to a copy of this installed builder, publishes the changed configuration
+         * and retransforms the affected classes, see {@link BlockHound#reconfigure(Consumer)}.
+         */
+        void reconfigure(Consumer<Builder> configurer) {
+            if (!jfrThresholds.isEmpty()) {
+                throw new IllegalStateException("The JFR event streaming mode can't be reconfigured");
+            }
+
+            Builder staging = new Builder();
+            staging.blockingMethods = new HashMap<>();
+            blockingMethods.forEach((internalClassName, methods) -> {
+                Map<String, Set<String>> methodsCopy = new HashMap<>();
+                methods.forEach((methodName, descriptors) -> methodsCopy.put(methodName, new HashSet<>(descriptors)));
+                staging.blockingMethods.put(internalClassName, methodsCopy);
+            });
+            staging.allowances = new HashMap<>();
+            allowances.forEach((className, methods) -> staging.allowances.put(className, new HashMap<>(methods)));
+            staging.threadPredicate = threadPredicate;
+            staging.dynamicThreadPredicate = dynamicThreadPredicate;
+
+            configurer.accept(staging);
+            if (!staging.spinWaitCallSitePackages.isEmpty() || !staging.callSitePackages.isEmpty()) {
+                throw new IllegalStateException("The call sites can't be reconfigured");
+            }
+
+            Reconfiguration reconfiguration = new Reconfiguration(
+                    blockingMethods,
+                    allowances,
+                    staging.blockingMethods,
+                    staging.allowances,
+                    !callSitePackages.isEmpty()
+            );
 
-            // Re-evaluate the current thread's state after assigning user-provided predicates
-            BlockHoundRuntime.STATE.remove();
+            if (installedClassCache != null) {
+                installedClassCache.disable();
+            }
+            reserveIds(installedRegistry, reconfiguration.addedBlockingMethods);
+            blockingMethods = staging.blockingMethods;
+            allowances = staging.allowances;
+            if (reconfiguration.callSitesChanged) {
+                callSiteMethods = findCallSiteMethods();
+                reserveIds(installedRegistry, callSiteMethods);
+            }
+            instrumentedClassNames = indexInstrumentedClassNames();
+            if (reportPinnedVirtualThreads) {
+                BlockHoundRuntime.pinningMethodIds = findPinningMethodIds(installedRegistry);
+            }
+
+            if (staging.threadPredicate != threadPredicate || staging.dynamicThreadPredicate != dynamicThreadPredicate) {
+                // Eagerly trigger the classloading of the predicates (since classloading is blocking)
+                staging.dynamicThreadPredicate.test(Thread.currentThread());
+                staging.threadPredicate.test(Thread.currentThread());
+
+                dynamicThreadPredicate = staging.dynamicThreadPredicate;
+                threadPredicate = staging.threadPredicate;
+                BlockHoundRuntime.dynamicThreadPredicate = dynamicThreadPredicate;
+                BlockHoundRuntime.threadPredicate = threadPredicate;
+                BlockHoundRuntime.resetState();
+            }
+
+            reconfiguration.retransform(installedInstrumentation, this::isCallSiteClass);
         }
 
         private void testInstrumentation() {
@@ -543,33 +1518,62 @@ public class BlockHound {
             throw new IllegalStateException(message);
         }
 
-        private void instrument(Instrumentation instrumentation) {
-            ClassFileTransformer transformer = new NativeWrappingClassFileTransformer(blockingMethods);
-            instrumentation.addTransformer(transformer, true);
-            instrumentation.setNativeMethodPrefix(transformer, PREFIX);
+        private void instrument(Instrumentation instrumentation, BlockingMethodRegistry registry, InstallationTimer timer) {
+            boolean callSiteEngine = !callSitePackages.isEmpty();
+            if (!spinWaitCallSitePackages.isEmpty() && !callSiteEngine) {
+                Map<String, Set<String>> threadMethods = blockingMethods.get("java/lang/Thread");
+                if (threadMethods != null && threadMethods.containsKey("onSpinWait")) {
+                    // Replaced (not modified), like by a reconfiguration
+                    Map<String, Map<String, Set<String>>> methods = new HashMap<>(blockingMethods);
+                    Map<String, Set<String>> threadMethodsCopy = new HashMap<>(threadMethods);
+                    threadMethodsCopy.remove("onSpinWait");
+                    methods.put("java/lang/Thread", threadMethodsCopy);
+                    blockingMethods = methods;
+                }
+            }
+            callSiteMethods = findCallSiteMethods();
+            reserveIds(registry, blockingMethods);
+            reserveIds(registry, callSiteMethods);
+            instrumentedClassNames = indexInstrumentedClassNames();
+            Class<?>[] instrumentedClasses = findInstrumentedClasses(instrumentation);
+            timer.endPhase(InstallationPhase.DISCOVERY);
+
+            ClassFileTransformer transformer = callSiteEngine ? null : new NativeWrappingClassFileTransformer(() -> blockingMethods);
+            AgentBuilder.TransformerDecorator storingDecorator = AgentBuilder.TransformerDecorator.NoOp.INSTANCE;
+            installedClassCache = null;
+            if (transformedClassCacheDirectory != null) {
+                TransformedClassCache cache = new TransformedClassCache(
+                        transformedClassCacheDirectory,
+                        describeTransformation(),
+                        () -> instrumentedClassNames,
+                        () -> blockingMethods,
+                        registry,
+                        this::isCallSiteClass
+                );
+                installedClassCache = cache;
 
-            new AgentBuilder.Default()
+                ClassFileTransformer lookupTransformer = cache.lookupTransformer();
+                instrumentation.addTransformer(lookupTransformer, true);
+                installedTransformers.add(lookupTransformer);
+                transformer = transformer == null ? null : cache.skippingServed(transformer);
+                storingDecorator = cache.storingDecorator();
+            }
+            if (transformer != null) {
+                instrumentation.addTransformer(transformer, true);
+                instrumentation.setNativeMethodPrefix(transformer, PREFIX);
+                installedTransformers.add(transformer);
+            }
+
+            ClassFileTransformer byteBuddyTransformer = new AgentBuilder.Default(
+                    new ByteBuddy()
+                            // The transformations only visit the declared methods of trusted classes
+                            .with(TypeValidation.DISABLED)
+                            .with(MethodGraph.Compiler.ForDeclaredMethods.INSTANCE)
+            )
                     .with(RedefinitionStrategy.RETRANSFORMATION)
                     // Explicit strategy is almost 2 times faster than SinglePass
                     // TODO https://github.com/raphw/byte-buddy/issues/715
-                    .with(new DiscoveryStrategy.Explicit(
-                            Stream
-                                    .of(instrumentation.getAllLoadedClasses())
-                                    .filter(it -> it.getName() != null)
-                                    .filter(it -> {
-                                        if (allowances.containsKey(it.getName())) {
-                                            return true;
-                                        }
-
-                                        String internalClassName = it.getName().replace(".", "/");
-                                        if (blockingMethods.containsKey(internalClassName)) {
-                                            return true;
-                                        }
-
-                                        return false;
-                                    })
-                                    .toArray(Class[]::new)
-                    ))
+                    .with(new DiscoveryStrategy.Explicit(instrumentedClasses))
                     .with(TypeStrategy.Default.DECORATE)
                     .with(InitializationStrategy.NoOp.INSTANCE)
                     // this DescriptionStrategy is required to force ByteBuddy to parse the bytes
@@ -580,21 +1584,166 @@ public class BlockHound {
                     // and we need to instrument it.
                     .with(BlockHoundPoolStrategy.INSTANCE)
                     .with(AgentBuilder.Listener.StreamWriting.toSystemError().withErrorsOnly())
+                    .with(storingDecorator)
+                    // Reject the other classes before parsing them, since the transformer stays registered
+                    .with(FastRejectingClassFileTransformer.decorator(() -> instrumentedClassNames))
 
                     // Do not ignore JDK classes
                     .ignore(ElementMatchers.none())
 
-                    // Instrument blocking calls
-                    .type(it -> blockingMethods.containsKey(it.getInternalName()))
-                    .transform(new BlockingCallsByteBuddyTransformer(blockingMethods))
+                    // Check the blocking calls at their call sites, not terminal since these classes may be (dis-)allowing
+                    .type(it -> isCallSiteClass(it.getInternalName()))
+                    .transform(new CallSiteBlockingCallsTransformer(() -> callSiteMethods, registry))
+
+                    // Instrument blocking calls, unless they are checked at their call sites
+                    .type(it -> !callSiteEngine && blockingMethods.containsKey(it.getInternalName()))
+                    .transform(new BlockingCallsByteBuddyTransformer(() -> blockingMethods, registry, minimumBlockingCallDuration != null))
                     .asTerminalTransformation()
 
                     // Instrument allowed/disallowed methods
                     .type(it -> allowances.containsKey(it.getName()))
-                    .transform(new AllowancesByteBuddyTransformer(allowances))
+                    .transform(new AllowancesByteBuddyTransformer(() -> allowances))
                     .asTerminalTransformation()
 
                     .installOn(instrumentation);
+            installedTransformers.add(byteBuddyTransformer);
+            timer.endPhase(InstallationPhase.INSTRUMENTATION);
+        }
+
+        /**
+         * Reserves the IDs in a stable order, independent from the class loading order.
+         */
+        private static void reserveIds(BlockingMethodRegistry registry, Map<String, Map<String, Set<String>>> blockingMethods) {
+            new TreeMap<>(blockingMethods).forEach((internalClassName, methods) -> {
+                new TreeMap<>(methods).forEach((methodName, descriptors) -> {
+                    new TreeSet<>(descriptors).forEach(descriptor -> {
+                        registry.reserve(internalClassName, methodName, descriptor);
+                    });
+                });
+            });
+        }
+
+        /**
+         * @return the IDs of the (call sites of the) blocking methods that pin a virtual thread,
+         * see {@link #reportPinnedVirtualThreads(boolean)}
+         */
+        private int[] findPinningMethodIds(BlockingMethodRegistry registry) {
+            Set<Integer> ids = new TreeSet<>();
+            for (Map<String, Map<String, Set<String>>> methods : Arrays.asList(blockingMethods, callSiteMethods)) {
+                methods.forEach((internalClassName, methodsOfClass) -> {
+                    methodsOfClass.forEach((methodName, descriptors) -> {
+                        if (VirtualThreads.isPinning(internalClassName, methodName)) {
+                            descriptors.forEach(descriptor -> ids.add(registry.reserve(internalClassName, methodName, descriptor)));
+                        }
+                    });
+                });
+            }
+            return ids.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * Describes everything that the transformed class files depend on, besides their original bytes,
+         * see {@link TransformedClassCache}.
+         */
+        private String describeTransformation() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(System.getProperty("java.vm.vendor")).append(' ').append(System.getProperty("java.runtime.version"));
+            // The bootstrap classes are identified by their name, see TransformedClassCache
+            File javaHome = new File(System.getProperty("java.home"));
+            File modules = new File(javaHome, "lib/modules");
+            File runtime = modules.exists() ? modules : new File(javaHome, "lib/rt.jar");
+            sb.append(' ').append(runtime).append(' ').append(runtime.length()).append(' ').append(runtime.lastModified());
+
+            // The transformations change with the agent, even if the version of a snapshot does not
+            sb.append('\n').append(BlockHound.class.getPackage().getImplementationVersion());
+            try {
+                File agentFile = new File(BlockHound.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+                sb.append(' ').append(agentFile).append(' ').append(agentFile.length()).append(' ').append(agentFile.lastModified());
+            }
+            catch (Exception e) {
+                // e.g. no code source, only the version is known
+            }
+
+            sb.append('\n').append(minimumBlockingCallDuration != null);
+            sb.append('\n').append(spinWaitCallSitePackages).append(callSitePackages);
+            new TreeMap<>(blockingMethods).forEach((internalClassName, methods) -> {
+                new TreeMap<>(methods).forEach((methodName, descriptors) -> {
+                    sb.append('\n').append(internalClassName).append('.').append(methodName).append(new TreeSet<>(descriptors));
+                });
+            });
+            new TreeMap<>(allowances).forEach((className, methods) -> {
+                sb.append('\n').append(className).append(new TreeMap<>(methods));
+            });
+            return sb.toString();
+        }
+
+        /**
+         * @return all the blocking methods with the call-site engine, only {@link Thread#onSpinWait()}
+         * if its call sites are detected, none otherwise
+         */
+        private Map<String, Map<String, Set<String>>> findCallSiteMethods() {
+            if (!callSitePackages.isEmpty()) {
+                Map<String, Map<String, Set<String>>> methods = new HashMap<>();
+                CallSiteBlockingCallsTransformer.PUBLIC_BLOCKING_METHODS.forEach((internalClassName, methodsOfClass) -> {
+                    methodsOfClass.forEach((methodName, descriptors) -> {
+                        methods.computeIfAbsent(internalClassName, __ -> new HashMap<>())
+                               .computeIfAbsent(methodName, __ -> new HashSet<>())
+                               .addAll(descriptors);
+                    });
+                });
+                blockingMethods.forEach((internalClassName, methodsOfClass) -> {
+                    methodsOfClass.forEach((methodName, descriptors) -> {
+                        methods.computeIfAbsent(internalClassName, __ -> new HashMap<>())
+                               .computeIfAbsent(methodName, __ -> new HashSet<>())
+                               .addAll(descriptors);
+                    });
+                });
+                return methods;
+            }
+            if (!spinWaitCallSitePackages.isEmpty()) {
+                return Collections.singletonMap("java/lang/Thread", Collections.singletonMap("onSpinWait", singleton("()V")));
+            }
+            return Collections.emptyMap();
+        }
+
+        private ClassNameIndex indexInstrumentedClassNames() {
+            Set<String> internalClassNames = new HashSet<>();
+            if (callSitePackages.isEmpty()) {
+                internalClassNames.addAll(blockingMethods.keySet());
+            }
+            else {
+                // Verifies the instrumentation, see testInstrumentation()
+                internalClassNames.add(TEST_THREAD_INTERNAL_NAME);
+            }
+            allowances.keySet().forEach(className -> internalClassNames.add(className.replace(".", "/")));
+            Set<String> packagePrefixes = new LinkedHashSet<>(spinWaitCallSitePackages);
+            packagePrefixes.addAll(callSitePackages);
+            return new ClassNameIndex(internalClassNames, packagePrefixes);
+        }
+
+        private boolean isCallSiteClass(String internalClassName) {
+            for (String packagePrefix : spinWaitCallSitePackages) {
+                if (internalClassName.startsWith(packagePrefix)) {
+                    return true;
+                }
+            }
+            for (String packagePrefix : callSitePackages) {
+                if (internalClassName.startsWith(packagePrefix)) {
+                    return true;
+                }
+            }
+            return !callSitePackages.isEmpty() && internalClassName.equals(TEST_THREAD_INTERNAL_NAME);
+        }
+
+        /**
+         * Finds the loaded classes in {@link #instrumentedClassNames}, which must be up to date.
+         */
+        private Class<?>[] findInstrumentedClasses(Instrumentation instrumentation) {
+            ClassNameIndex index = instrumentedClassNames;
+            return Stream
+                    .of(instrumentation.getAllLoadedClasses())
+                    .filter(it -> it.getName() != null && index.contains(it.getName().replace('.', '/')))
+                    .toArray(Class[]::new);
         }
     }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import java.util.Map;
+
+/**
+ * The management interface of the {@value #OBJECT_NAME} MBean, see {@link BlockHound.Builder#registerMBean(boolean)}.
+ */
+public interface BlockHoundMXBean {
+
+    String OBJECT_NAME = "reactor.blockhound:type=BlockHound";
+
+    /**
+     * @return the number of blocking calls checked since the installation (only the sampled ones)
+     */
+    long getCheckedCount();
+
+    /**
+     * @return the number of blocking calls from non-blocking threads that were allowed
+     */
+    long getAllowedCount();
+
+    /**
+     * @return the number of blocking calls from non-blocking threads that were reported
+     */
+    long getReportedCount();
+
+    /**
+     * @return the number of timed blocking calls that were shorter than the minimum duration and therefore not reported
+     */
+    long getSuppressedCount();
+
+    /**
+     * @return the number of blocking calls dropped because the buffer of the asynchronous reporting was full
+     */
+    long getDroppedCount();
+
+    /**
+     * @return the number of reported blocking calls per blocking method
+     */
+    Map<String, Long> getReportedCountPerMethod();
+
+    /**
+     * @return the number of reported blocking calls per thread name, where digits are replaced with {@code #}
+     * (e.g. {@code reactor-http-nio-#})
+     */
+    Map<String, Long> getReportedCountPerThread();
+
+    /**
+     * @return how the blocking calls are currently reported, {@link BlockHound.ReportingMode#CALLBACK} by default
+     */
+    BlockHound.ReportingMode getReportingMode();
+
+    /**
+     * @param mode how the blocking calls should be reported from now on
+     */
+    void setReportingMode(BlockHound.ReportingMode mode);
+
+    /**
+     * @return the current sampling interval, 1 if every blocking call is checked
+     * @see BlockHound#getSamplingInterval()
+     */
+    int getSamplingInterval();
+
+    /**
+     * @param interval check one in {@code interval} blocking calls on average, 1 to check every call
+     * @see BlockHound#setSamplingInterval(int)
+     */
+    void setSamplingInterval(int interval);
+}
@@ -16,7 +16,8 @@
 
 package reactor.blockhound;
 
-import java.util.function.Consumer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
 
 // Warning!!! This class MUST NOT be loaded by any classloader other than the bootstrap one.
@@ -26,17 +27,34 @@ class BlockHoundRuntime {
 
     public static final class State {
 
-        final boolean dynamic;
+        /**
+         * The value of {@link BlockHoundRuntime#stateEpoch} at which {@link #checked} and {@link #dynamic} were computed.
+         */
+        int stateEpoch = Integer.MIN_VALUE;
+
+        /**
+         * Whether the blocking calls of the thread are checked, i.e. it is dynamic or non-blocking.
+         */
+        boolean checked = false;
+
+        boolean dynamic = false;
 
         boolean allowed = false;
 
-        public State(boolean dynamic) {
-            this(dynamic, false);
-        }
+        /**
+         * The value of {@link BlockHoundRuntime#classificationEpoch} at which {@link #nonBlocking} was computed.
+         * Only used for dynamic threads.
+         */
+        int classificationEpoch = Integer.MIN_VALUE;
 
-        State(boolean dynamic, boolean allowed) {
-            this.dynamic = dynamic;
-            this.allowed = allowed;
+        boolean nonBlocking = false;
+
+        /**
+         * Only the checked threads have their own state, the other ones share {@link #unchecked},
+         * whose {@link #allowed} flag must not be set.
+         */
+        public boolean isChecked() {
+            return checked;
         }
 
         public boolean isDynamic() {
@@ -52,44 +70,292 @@ class BlockHoundRuntime {
         }
     }
 
-    public static volatile Consumer<Object[]> blockingMethodConsumer;
+    public interface BlockingCallConsumer {
+
+        /**
+         * @param method the detected blocking method
+         * @param samplingInterval the sampling interval at which it was detected
+         * @param durationNanos the duration of the blocking call, or -1 if not measured
+         */
+        void accept(Object method, int samplingInterval, long durationNanos);
+    }
+
+    public interface DurationRecorder {
+
+        /**
+         * @param methodId the ID of the blocking method
+         * @param durationNanos the duration of the blocking call
+         */
+        void record(int methodId, long durationNanos);
+    }
+
+    /**
+     * Returned by {@link #enterBlocking(int, int)} when the blocking call must not be reported.
+     */
+    static final long NOT_REPORTED = Long.MIN_VALUE;
 
+    public static volatile BlockingCallConsumer blockingMethodConsumer;
+
+    /**
+     * Pre-built descriptions of the instrumented blocking methods, indexed by the method ID
+     * that the instrumentation passes to {@link #checkBlocking(int)}.
+     */
+    public static volatile Object[] blockingMethods = new Object[0];
+
+    // Not null before the installation sets them, see currentState()
     public static volatile Predicate<Thread> threadPredicate;
 
     public static volatile Predicate<Thread> dynamicThreadPredicate;
 
-    public static final ThreadLocal<State> STATE = ThreadLocal.withInitial(() -> {
-        boolean isDynamic = dynamicThreadPredicate.test(Thread.currentThread());
-        if (isDynamic) {
-            return new State(true);
+    /**
+     * A negative value disables the caching of the dynamic threads' classification,
+     * otherwise it is incremented every time the cached classifications must be re-evaluated.
+     */
+    public static volatile int classificationEpoch = -1;
+
+    /**
+     * When greater than 1, only one in {@code samplingInterval} blocking calls (on average) is checked.
+     */
+    public static volatile int samplingInterval = 1;
+
+    /**
+     * The timed blocking calls shorter than this duration are only counted in {@link #suppressedBlockingCalls}.
+     */
+    public static volatile long minimumDurationNanos = 0;
+
+    public static final LongAdder suppressedBlockingCalls = new LongAdder();
+
+    /**
+     * Receives the duration of every detected timed blocking call, including the ones shorter than {@link #minimumDurationNanos}.
+     */
+    public static volatile DurationRecorder durationRecorder;
+
+    /**
+     * Whether {@link #checkedBlockingCalls} and {@link #allowedBlockingCalls} should be incremented.
+     */
+    public static volatile boolean countChecks = false;
+
+    public static final LongAdder checkedBlockingCalls = new LongAdder();
+
+    public static final LongAdder allowedBlockingCalls = new LongAdder();
+
+    /**
+     * The IDs of the blocking methods that a virtual thread only calls while it is pinned to its carrier thread,
+     * or {@code null} if the blocking calls of the virtual threads are never reported.
+     */
+    public static volatile int[] pinningMethodIds;
+
+    /**
+     * Incremented every time the threads must be classified again, see {@link #resetState()}.
+     */
+    public static volatile int stateEpoch = 0;
+
+    /**
+     * The state shared by the threads that are not checked at {@link #stateEpoch}, never modified once published.
+     * The allowances skip these threads with a single field read, see {@link State#isChecked()}.
+     */
+    static volatile State unchecked = new State();
+
+    /**
+     * The initial state of every thread, stale so that the thread is classified on its first blocking call.
+     */
+    private static final State UNCLASSIFIED = new State();
+
+    /**
+     * Never replaced, so that the allowances of the checked threads survive a reinstallation or a reconfiguration.
+     * Must be read with {@link #currentState()}, since the threads start with the stale {@link #UNCLASSIFIED} state.
+     */
+    static final ThreadLocal<State> STATE = ThreadLocal.withInitial(() -> UNCLASSIFIED);
+
+    /**
+     * Makes the threads be classified again by the predicates on their next blocking call,
+     * including the threads that were already running during the installation.
+     * The checked threads keep their state, and therefore their allowances in progress.
+     */
+    public static void resetState() {
+        stateEpoch++;
+    }
+
+    /**
+     * @return the state of the current thread, classified with the current predicates
+     */
+    public static State currentState() {
+        State state = STATE.get();
+        int epoch = stateEpoch;
+        if (state.stateEpoch == epoch) {
+            return state;
         }
 
-        boolean isNonBlocking = threadPredicate.test(Thread.currentThread());
-        if (isNonBlocking) {
-            return new State(false);
+        // Not checked while the predicates run, in case they block
+        boolean shared = !state.checked;
+        if (shared) {
+            STATE.set(uncheckedState(epoch));
+        }
+        else {
+            state.stateEpoch = epoch;
+            state.checked = false;
         }
 
-        // Optimization: return `null` if not dynamic and `not non-blocking`
-        return null;
-    });
+        Thread currentThread = Thread.currentThread();
+        boolean dynamic = dynamicThreadPredicate.test(currentThread);
+        boolean checked = dynamic ||
+                threadPredicate.test(currentThread) ||
+                // The pinned virtual threads block their carrier thread, whatever the predicates say
+                (pinningMethodIds != null && VirtualThreads.isVirtual(currentThread));
+        if (!checked) {
+            return shared ? STATE.get() : state;
+        }
+
+        if (shared) {
+            state = new State();
+            state.stateEpoch = epoch;
+            STATE.set(state);
+        }
+        state.dynamic = dynamic;
+        state.classificationEpoch = Integer.MIN_VALUE;
+        state.checked = true;
+        return state;
+    }
+
+    private static State uncheckedState(int epoch) {
+        State state = unchecked;
+        if (state.stateEpoch != epoch) {
+            state = new State();
+            state.stateEpoch = epoch;
+            unchecked = state;
+        }
+        return state;
+    }
 
     @SuppressWarnings("unused")
-    public static void checkBlocking(String internalClassName, String methodName, int modifiers) {
-        State state = STATE.get();
-        if (state == null || state.isAllowed()) {
+    public static void checkBlocking(int methodId) {
+        int interval = samplingInterval;
+        if (isReported(methodId, interval)) {
+            blockingMethodConsumer.accept(blockingMethods[methodId], interval, -1L);
+        }
+    }
+
+    /**
+     * Called before a timed blocking call, see {@link #exitBlocking(int, long, int)}.
+     *
+     * @param methodId the ID of the blocking method
+     * @param interval the {@link #samplingInterval} read by the advice, passed again to {@link #exitBlocking(int, long, int)}
+     * @return the start of the blocking call if it must be reported, {@link #NOT_REPORTED} otherwise
+     */
+    @SuppressWarnings("unused")
+    public static long enterBlocking(int methodId, int interval) {
+        return isReported(methodId, interval) ? System.nanoTime() : NOT_REPORTED;
+    }
+
+    /**
+     * Reports a timed blocking call once it has completed,
+     * unless it was shorter than {@link #minimumDurationNanos}.
+     *
+     * @param methodId the ID of the blocking method
+     * @param startNanos the value returned by {@link #enterBlocking(int, int)}
+     * @param interval the sampling interval at which the call was checked, even if {@link #samplingInterval} has changed since
+     */
+    @SuppressWarnings("unused")
+    public static void exitBlocking(int methodId, long startNanos, int interval) {
+        if (startNanos == NOT_REPORTED) {
             return;
         }
 
-        if (state.isDynamic()) {
-            boolean isNonBlocking = threadPredicate.test(Thread.currentThread());
-            if (!isNonBlocking) {
-                return;
+        long duration = System.nanoTime() - startNanos;
+        DurationRecorder recorder = durationRecorder;
+        if (recorder != null) {
+            recorder.record(methodId, duration);
+        }
+
+        if (duration < minimumDurationNanos) {
+            suppressedBlockingCalls.increment();
+            return;
+        }
+        blockingMethodConsumer.accept(blockingMethods[methodId], interval, duration);
+    }
+
+    private static boolean isReported(int methodId, int interval) {
+        // Blocking is fine on a virtual thread, unless it is pinned to its carrier thread.
+        // Thread.isVirtual() is a field read, unlike the ThreadLocal lookup of the state
+        if (VirtualThreads.isVirtual(Thread.currentThread()) && !isPinning(methodId)) {
+            return false;
+        }
+
+        // ThreadLocalRandom keeps its seed in the Thread itself, there is no ThreadLocal lookup nor contention
+        if (interval > 1 && ThreadLocalRandom.current().nextInt(interval) != 0) {
+            return false;
+        }
+
+        boolean count = countChecks;
+        if (count) {
+            checkedBlockingCalls.increment();
+        }
+
+        State state = currentState();
+        if (!state.checked) {
+            return false;
+        }
+
+        if (state.isAllowed()) {
+            if (count && (!state.isDynamic() || isDynamicThreadNonBlocking(state))) {
+                allowedBlockingCalls.increment();
+            }
+            return false;
+        }
+
+        if (state.isDynamic() && !isDynamicThreadNonBlocking(state)) {
+            return false;
+        }
+
+        // The ScopedValue lookup only happens once the thread is known to be non-blocking
+        if (AllowedScopes.isInherited()) {
+            if (count) {
+                allowedBlockingCalls.increment();
             }
+            return false;
+        }
+
+        return true;
+    }
+
+    private static boolean isPinning(int methodId) {
+        int[] ids = pinningMethodIds;
+        if (ids == null) {
+            return false;
+        }
+        for (int id : ids) {
+            if (id == methodId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDynamicThreadNonBlocking(State state) {
+        int epoch = classificationEpoch;
+        if (state.classificationEpoch == epoch) {
+            return state.nonBlocking;
+        }
+
+        boolean isNonBlocking = threadPredicate.test(Thread.currentThread());
+        if (epoch >= 0) {
+            state.nonBlocking = isNonBlocking;
+            state.classificationEpoch = epoch;
+        }
+        return isNonBlocking;
+    }
+
+    public static void invalidateClassification() {
+        State state = STATE.get();
+        if (state.checked) {
+            state.classificationEpoch = Integer.MIN_VALUE;
+        }
+    }
+
+    public static void invalidateClassifications() {
+        int epoch = classificationEpoch;
+        if (epoch >= 0) {
+            classificationEpoch = (epoch + 1) & Integer.MAX_VALUE;
         }
-        blockingMethodConsumer.accept(new Object[] {
-                internalClassName.replace("/", "."),
-                methodName,
-                modifiers
-        });
     }
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records the durations of the timed blocking calls into a {@link DurationHistogram} per blocking method
+ * and, optionally, per call site.
+ * <p>
+ * The histograms of the blocking methods are indexed by the method ID.
+ * The call sites are identified like in {@link CallSiteDeduplicator}, and stored in a fixed-size open addressing table
+ * that is updated with CAS operations only. When the table is full, the durations of the new call sites
+ * are only recorded in the histogram of their blocking method.
+ * Only the first blocking call of a blocking method or a call site allocates its histogram.
+ */
+class BlockingCallDurationRecorder implements BlockHoundRuntime.DurationRecorder {
+
+    static final int CALL_SITE_CAPACITY = 256;
+
+    private final int stackDepth;
+
+    private final AtomicReferenceArray<DurationHistogram> methodHistograms;
+
+    private final AtomicReferenceArray<CallSite> callSites = new AtomicReferenceArray<>(CALL_SITE_CAPACITY);
+
+    /**
+     * @param methodCount the number of the blocking method IDs, see {@link BlockingMethodRegistry#size()}
+     * @param stackDepth the number of the top stacktrace frames identifying a call site, 0 to not record per call site
+     */
+    BlockingCallDurationRecorder(int methodCount, int stackDepth) {
+        this.stackDepth = stackDepth;
+        this.methodHistograms = new AtomicReferenceArray<>(methodCount);
+    }
+
+    /**
+     * Makes {@link BlockHoundRuntime} record the durations of the timed blocking calls with this recorder.
+     */
+    void start() {
+        // Not assigned by BlockHound, since it would make the verifier load DurationRecorder before its injection
+        BlockHoundRuntime.durationRecorder = this;
+    }
+
+    @Override
+    public void record(int methodId, long durationNanos) {
+        if (methodId < methodHistograms.length()) {
+            DurationHistogram histogram = methodHistograms.get(methodId);
+            if (histogram == null) {
+                methodHistograms.compareAndSet(methodId, null, new DurationHistogram());
+                histogram = methodHistograms.get(methodId);
+            }
+            histogram.record(durationNanos);
+        }
+
+        if (stackDepth > 0) {
+            CallSite callSite = findCallSite((BlockingMethod) BlockHoundRuntime.blockingMethods[methodId]);
+            if (callSite != null) {
+                callSite.histogram.record(durationNanos);
+            }
+        }
+    }
+
+    private CallSite findCallSite(BlockingMethod method) {
+        BlockingStackTraces.CallStack callStack = BlockingStackTraces.capture(stackDepth);
+        long key = CallSiteDeduplicator.hash(method, callStack);
+
+        int mask = CALL_SITE_CAPACITY - 1;
+        int index = (int) key & mask;
+        for (int probe = 0; probe < CALL_SITE_CAPACITY; probe++, index = (index + 1) & mask) {
+            CallSite current = callSites.get(index);
+            if (current == null) {
+                // Only the first occurrence pays the price of creating the StackTraceElements
+                CallSite callSite = new CallSite(key, method, callStack.toStackTrace());
+                if (callSites.compareAndSet(index, null, callSite)) {
+                    return callSite;
+                }
+                current = callSites.get(index);
+            }
+
+            if (current.key == key) {
+                return current;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param reset whether the recorded durations should be cleared
+     * @return the durations of the blocking methods that were called since the previous reset
+     */
+    List<BlockingCallDurations> snapshotMethods(boolean reset) {
+        List<BlockingCallDurations> result = new ArrayList<>();
+        Object[] blockingMethods = BlockHoundRuntime.blockingMethods;
+        for (int i = 0; i < methodHistograms.length(); i++) {
+            DurationHistogram histogram = methodHistograms.get(i);
+            if (histogram == null) {
+                continue;
+            }
+
+            BlockingCallDurations durations = new BlockingCallDurations(
+                    (BlockingMethod) blockingMethods[i],
+                    new StackTraceElement[0],
+                    histogram.snapshot(reset)
+            );
+            if (durations.getCount() > 0) {
+                result.add(durations);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param reset whether the recorded durations should be cleared
+     * @return the durations of the call sites with blocking calls since the previous reset
+     */
+    List<BlockingCallDurations> snapshotCallSites(boolean reset) {
+        List<BlockingCallDurations> result = new ArrayList<>();
+        for (int i = 0; i < CALL_SITE_CAPACITY; i++) {
+            CallSite callSite = callSites.get(i);
+            if (callSite == null) {
+                continue;
+            }
+
+            BlockingCallDurations durations = new BlockingCallDurations(
+                    callSite.method,
+                    callSite.stackTrace,
+                    callSite.histogram.snapshot(reset)
+            );
+            if (durations.getCount() > 0) {
+                result.add(durations);
+            }
+        }
+        return result;
+    }
+
+    static final class CallSite {
+
+        final long key;
+
+        final BlockingMethod method;
+
+        final StackTraceElement[] stackTrace;
+
+        final DurationHistogram histogram = new DurationHistogram();
+
+        CallSite(long key, BlockingMethod method, StackTraceElement[] stackTrace) {
+            this.key = key;
+            this.method = method;
+            this.stackTrace = stackTrace;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+/**
+ * A snapshot of the histogram of the durations of the blocking calls to a blocking method,
+ * or from a call site, see {@link BlockHound.Builder#recordBlockingCallDurations(int)}.
+ * <p>
+ * The durations are recorded with a relative precision of about 3%.
+ */
+public final class BlockingCallDurations {
+
+    private final BlockingMethod method;
+
+    private final StackTraceElement[] stackTrace;
+
+    private final long[] counts;
+
+    private final long count;
+
+    private final long totalNanos;
+
+    private final long maxNanos;
+
+    BlockingCallDurations(BlockingMethod method, StackTraceElement[] stackTrace, long[] snapshot) {
+        this.method = method;
+        this.stackTrace = stackTrace;
+        this.counts = new long[DurationHistogram.BUCKET_COUNT];
+        System.arraycopy(snapshot, 0, counts, 0, counts.length);
+        long count = 0;
+        for (long it : counts) {
+            count += it;
+        }
+        this.count = count;
+        this.totalNanos = snapshot[DurationHistogram.BUCKET_COUNT];
+        this.maxNanos = snapshot[DurationHistogram.BUCKET_COUNT + 1];
+    }
+
+    /**
+     * @return the blocking method
+     */
+    public BlockingMethod getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the top frames identifying the call site, starting at the blocking method,
+     * or an empty array if these are the durations of all the calls to the blocking method
+     */
+    public StackTraceElement[] getStackTrace() {
+        return stackTrace.clone();
+    }
+
+    /**
+     * @return the number of recorded blocking calls
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the sum of the durations of the recorded blocking calls in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return the longest duration of the recorded blocking calls in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @param percentile a percentile between 0 and 100 (e.g. 99.9)
+     * @return the duration in nanoseconds that {@code percentile}% of the recorded blocking calls did not exceed,
+     * 0 if no blocking call was recorded
+     */
+    public long getNanosAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100, was " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(DurationHistogram.highestValue(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder()
+                .append(method)
+                .append(" x")
+                .append(count)
+                .append(" p50=")
+                .append(getNanosAtPercentile(50))
+                .append("ns p99=")
+                .append(getNanosAtPercentile(99))
+                .append("ns max=")
+                .append(maxNanos)
+                .append("ns");
+        for (StackTraceElement element : stackTrace) {
+            sb.append("\n\tat ").append(element);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+/**
+ * Emits a JFR event for every reported blocking call, see {@link BlockHound.Builder#emitJfrEvents(boolean)}.
+ * <p>
+ * JFR is not available on JDK 8, this class is replaced on JDK 11+ by the one in {@code src/main/java11}
+ * (the multi-release part of the agent).
+ */
+final class BlockingCallEvents {
+
+    /**
+     * @return whether JFR events can be emitted on this JDK
+     */
+    static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Makes {@link BlockHoundRuntime} emit an event before passing the blocking calls to the current consumer.
+     */
+    static void start() {
+    }
+
+    private BlockingCallEvents() {
+    }
+}
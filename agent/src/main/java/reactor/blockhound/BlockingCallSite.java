@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import java.util.function.Consumer;
+
+/**
+ * A summary of the blocking calls detected at the same call site,
+ * see {@link BlockHound.Builder#deduplicateCallSites(int, java.time.Duration, Consumer)}.
+ */
+public final class BlockingCallSite {
+
+    private final BlockingMethod method;
+
+    private final StackTraceElement[] stackTrace;
+
+    private final long count;
+
+    private final long countSinceLastSummary;
+
+    BlockingCallSite(BlockingMethod method, StackTraceElement[] stackTrace, long count, long countSinceLastSummary) {
+        this.method = method;
+        this.stackTrace = stackTrace;
+        this.count = count;
+        this.countSinceLastSummary = countSinceLastSummary;
+    }
+
+    /**
+     * @return the blocking method called at this call site
+     */
+    public BlockingMethod getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the top frames identifying this call site, starting at the blocking method
+     */
+    public StackTraceElement[] getStackTrace() {
+        return stackTrace.clone();
+    }
+
+    /**
+     * @return the number of blocking calls detected at this call site since BlockHound was installed
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of blocking calls detected at this call site since the previous summary
+     */
+    public long getCountSinceLastSummary() {
+        return countSinceLastSummary;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder()
+                .append(method)
+                .append(" x")
+                .append(count)
+                .append(" (+")
+                .append(countSinceLastSummary)
+                .append(")");
+        for (StackTraceElement element : stackTrace) {
+            sb.append("\n\tat ").append(element);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the reported blocking calls before passing them to the current {@link BlockHoundRuntime#blockingMethodConsumer}
+ * (unless the {@link BlockHound.ReportingMode} says otherwise), and exposes the counters with JMX.
+ * <p>
+ * The counters are {@link LongAdder}s, so that the non-blocking threads do not contend on them.
+ * The blocking methods are compared by identity, since every blocking method is described by a single pre-built
+ * {@link BlockingMethod}, see {@link BlockingMethodRegistry}.
+ * The counter of the thread name is cached by every thread until it is renamed, and at most {@link #MAX_THREAD_NAMES}
+ * thread names are counted separately, the others being counted as {@link #OTHER_THREAD_NAMES}.
+ */
+class BlockingCallStatistics implements BlockHoundMXBean, BlockHoundRuntime.BlockingCallConsumer {
+
+    static final int MAX_THREAD_NAMES = 256;
+
+    static final String OTHER_THREAD_NAMES = "<other>";
+
+    private final LongAdder reported = new LongAdder();
+
+    private final Map<Object, LongAdder> reportedPerMethod = new ConcurrentHashMap<>();
+
+    private final Map<String, LongAdder> reportedPerThread = new ConcurrentHashMap<>();
+
+    /**
+     * The number of thread names in {@link #reportedPerThread}, reserved before adding them.
+     */
+    private final AtomicInteger threadNames = new AtomicInteger();
+
+    private final ThreadLocal<ThreadCounter> threadCounters = new ThreadLocal<>();
+
+    private volatile BlockHound.ReportingMode reportingMode = BlockHound.ReportingMode.CALLBACK;
+
+    private BlockHoundRuntime.BlockingCallConsumer delegate;
+
+    /**
+     * Starts counting the blocking calls in {@link BlockHoundRuntime} and registers the MBean.
+     */
+    void start() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        }
+        catch (JMException e) {
+            throw new IllegalStateException("Failed to register the " + OBJECT_NAME + " MBean", e);
+        }
+
+        // Not assigned by BlockHound, since it would make the verifier load BlockingCallConsumer before its injection
+        delegate = BlockHoundRuntime.blockingMethodConsumer;
+        BlockHoundRuntime.blockingMethodConsumer = this;
+        BlockHoundRuntime.countChecks = true;
+    }
+
+    /**
+     * Stops counting the checks and unregisters the MBean.
+     */
+    void stop() {
+        BlockHoundRuntime.countChecks = false;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+        }
+        catch (JMException e) {
+            throw new IllegalStateException("Failed to unregister the " + OBJECT_NAME + " MBean", e);
+        }
+    }
+
+    @Override
+    public void accept(Object method, int samplingInterval, long durationNanos) {
+        reported.increment();
+        LongAdder methodCounter = reportedPerMethod.get(method);
+        if (methodCounter == null) {
+            methodCounter = reportedPerMethod.computeIfAbsent(method, __ -> new LongAdder());
+        }
+        methodCounter.increment();
+        threadCounter(Thread.currentThread()).increment();
+
+        switch (reportingMode) {
+            case CALLBACK:
+                delegate.accept(method, samplingInterval, durationNanos);
+                break;
+            case LOG:
+                BlockingMethod blockingMethod = ((BlockingMethod) method).withDetails(samplingInterval, durationNanos);
+                Error error = new BlockingOperationError(blockingMethod);
+                error.setStackTrace(BlockingStackTraces.strip(error.getStackTrace()));
+                // Throwable#printStackTrace is allowed by default
+                error.printStackTrace();
+                break;
+            case COUNT:
+                break;
+        }
+    }
+
+    private LongAdder threadCounter(Thread thread) {
+        String threadName = thread.getName();
+        ThreadCounter threadCounter = threadCounters.get();
+        if (threadCounter != null && threadCounter.threadName.equals(threadName)) {
+            return threadCounter.counter;
+        }
+
+        LongAdder counter = patternCounter(pattern(threadName));
+        threadCounters.set(new ThreadCounter(threadName, counter));
+        return counter;
+    }
+
+    private static String pattern(String threadName) {
+        StringBuilder sb = new StringBuilder(threadName.length());
+        for (int i = 0; i < threadName.length(); i++) {
+            char c = threadName.charAt(i);
+            if (c < '0' || c > '9') {
+                sb.append(c);
+            }
+            else if (sb.length() == 0 || sb.charAt(sb.length() - 1) != '#') {
+                sb.append('#');
+            }
+        }
+        return sb.toString();
+    }
+
+    private LongAdder patternCounter(String pattern) {
+        LongAdder counter = reportedPerThread.get(pattern);
+        if (counter != null) {
+            return counter;
+        }
+        if (threadNames.incrementAndGet() > MAX_THREAD_NAMES) {
+            threadNames.decrementAndGet();
+            return reportedPerThread.computeIfAbsent(OTHER_THREAD_NAMES, __ -> new LongAdder());
+        }
+
+        LongAdder previous = reportedPerThread.putIfAbsent(pattern, counter = new LongAdder());
+        if (previous != null) {
+            // Added concurrently by another thread
+            threadNames.decrementAndGet();
+            return previous;
+        }
+        return counter;
+    }
+
+    @Override
+    public long getCheckedCount() {
+        return BlockHoundRuntime.checkedBlockingCalls.sum();
+    }
+
+    @Override
+    public long getAllowedCount() {
+        return BlockHoundRuntime.allowedBlockingCalls.sum();
+    }
+
+    @Override
+    public long getReportedCount() {
+        return reported.sum();
+    }
+
+    @Override
+    public long getSuppressedCount() {
+        return BlockHound.getSuppressedBlockingCallCount();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return BlockHound.getDroppedBlockingCallCount();
+    }
+
+    @Override
+    public Map<String, Long> getReportedCountPerMethod() {
+        Map<String, Long> result = new TreeMap<>();
+        reportedPerMethod.forEach((method, counter) -> result.merge(method.toString(), counter.sum(), Long::sum));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getReportedCountPerThread() {
+        Map<String, Long> result = new TreeMap<>();
+        reportedPerThread.forEach((pattern, counter) -> result.put(pattern, counter.sum()));
+        return result;
+    }
+
+    @Override
+    public BlockHound.ReportingMode getReportingMode() {
+        return reportingMode;
+    }
+
+    @Override
+    public void setReportingMode(BlockHound.ReportingMode mode) {
+        this.reportingMode = Objects.requireNonNull(mode, "mode");
+    }
+
+    @Override
+    public int getSamplingInterval() {
+        return BlockHound.getSamplingInterval();
+    }
+
+    @Override
+    public void setSamplingInterval(int interval) {
+        BlockHound.setSamplingInterval(interval);
+    }
+
+    private static final class ThreadCounter {
+
+        final String threadName;
+
+        final LongAdder counter;
+
+        ThreadCounter(String threadName, LongAdder counter) {
+            this.threadName = threadName;
+            this.counter = counter;
+        }
+    }
+}
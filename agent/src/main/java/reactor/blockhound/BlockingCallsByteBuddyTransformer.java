@@ -20,9 +20,11 @@ import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.asm.Advice;
 import net.bytebuddy.asm.AsmVisitorWrapper;
 import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.description.method.ParameterDescription;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.matcher.ElementMatcher;
 import net.bytebuddy.utility.JavaModule;
 
 import java.lang.annotation.Documented;
@@ -32,17 +34,31 @@ import java.lang.annotation.RetentionPolicy;
 import java.security.ProtectionDomain;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
+
+import static net.bytebuddy.matcher.ElementMatchers.isConstructor;
+import static net.bytebuddy.matcher.ElementMatchers.not;
 
 /**
- * This transformer applies {@link BlockingCallAdvice} to every method
+ * This transformer applies {@link BlockingCallAdvice} (or {@link TimedBlockingCallAdvice}) to every method
  * registered with {@link BlockHound.Builder#markAsBlocking(Class, String, String)}.
  */
 class BlockingCallsByteBuddyTransformer implements AgentBuilder.Transformer {
 
-    private Map<String, Map<String, Set<String>>> blockingMethods;
+    private Supplier<Map<String, Map<String, Set<String>>>> blockingMethods;
+
+    private final BlockingMethodRegistry registry;
+
+    private final boolean measureDuration;
 
-    BlockingCallsByteBuddyTransformer(Map<String, Map<String, Set<String>>> blockingMethods) {
+    BlockingCallsByteBuddyTransformer(
+            Supplier<Map<String, Map<String, Set<String>>>> blockingMethods,
+            BlockingMethodRegistry registry,
+            boolean measureDuration
+    ) {
         this.blockingMethods = blockingMethods;
+        this.registry = registry;
+        this.measureDuration = measureDuration;
     }
 
     @Override
@@ -53,19 +69,35 @@ class BlockingCallsByteBuddyTransformer implements AgentBuilder.Transformer {
             JavaModule module,
             ProtectionDomain protectionDomain
     ) {
-        Map<String, Set<String>> methods = blockingMethods.get(typeDescription.getInternalName());
+        Map<String, Set<String>> methods = blockingMethods.get().get(typeDescription.getInternalName());
 
         if (methods == null) {
             return builder;
         }
 
+        ElementMatcher.Junction<MethodDescription> isBlocking = new ElementMatcher.Junction.AbstractBase<MethodDescription>() {
+            @Override
+            public boolean matches(MethodDescription method) {
+                Set<String> descriptors = methods.get(method.getInternalName());
+                return descriptors != null && descriptors.contains(method.getDescriptor());
+            }
+        };
+
+        if (measureDuration) {
+            // Constructors can't be timed since the exit advice can't catch the exceptions thrown by them
+            builder = builder.visit(
+                    Advice.withCustomMapping()
+                            .bind(new MethodIdArgument.Factory(registry))
+                            .to(TimedBlockingCallAdvice.class)
+                            .on(isBlocking.and(not(isConstructor())))
+            );
+            isBlocking = isBlocking.and(isConstructor());
+        }
+
         AsmVisitorWrapper advice = Advice.withCustomMapping()
-                .bind(ModifiersArgument.Factory.INSTANCE)
+                .bind(new MethodIdArgument.Factory(registry))
                 .to(BlockingCallAdvice.class)
-                .on(method -> {
-                    Set<String> descriptors = methods.get(method.getInternalName());
-                    return descriptors != null && descriptors.contains(method.getDescriptor());
-                });
+                .on(isBlocking);
 
         return builder.visit(advice);
     }
@@ -73,29 +105,39 @@ class BlockingCallsByteBuddyTransformer implements AgentBuilder.Transformer {
     @Documented
     @Retention(RetentionPolicy.RUNTIME)
     @java.lang.annotation.Target(ElementType.PARAMETER)
-    @interface ModifiersArgument {
+    @interface MethodIdArgument {
 
         /**
-         * Binds advice method's argument annotated with {@link ModifiersArgument}
-         * to method's modifiers (static, final, private, etc)
+         * Binds advice method's argument annotated with {@link MethodIdArgument}
+         * to the ID assigned to the method by {@link BlockingMethodRegistry}
          */
-        enum Factory implements Advice.OffsetMapping.Factory<ModifiersArgument> {
-            INSTANCE;
+        class Factory implements Advice.OffsetMapping.Factory<MethodIdArgument> {
+
+            final BlockingMethodRegistry registry;
+
+            Factory(BlockingMethodRegistry registry) {
+                this.registry = registry;
+            }
 
             @Override
-            public Class<ModifiersArgument> getAnnotationType() {
-                return ModifiersArgument.class;
+            public Class<MethodIdArgument> getAnnotationType() {
+                return MethodIdArgument.class;
             }
 
             @Override
             public Advice.OffsetMapping make(
                     ParameterDescription.InDefinedShape target,
-                    AnnotationDescription.Loadable<ModifiersArgument> annotation,
+                    AnnotationDescription.Loadable<MethodIdArgument> annotation,
                     AdviceType adviceType
             ) {
                 return (instrumentedType, instrumentedMethod, assigner, argumentHandler, sort) -> {
-                    int modifiers = instrumentedMethod.getModifiers();
-                    return Advice.OffsetMapping.Target.ForStackManipulation.of(modifiers);
+                    int methodId = registry.register(
+                            instrumentedType.getInternalName(),
+                            instrumentedMethod.getInternalName(),
+                            instrumentedMethod.getDescriptor(),
+                            instrumentedMethod.getModifiers()
+                    );
+                    return Advice.OffsetMapping.Target.ForStackManipulation.of(methodId);
                 };
             }
         }
@@ -105,11 +147,31 @@ class BlockingCallsByteBuddyTransformer implements AgentBuilder.Transformer {
 
         @Advice.OnMethodEnter
         static void onEnter(
-                @Advice.Origin("#t") String declaringType,
-                @Advice.Origin("#m") String methodName,
-                @BlockingCallsByteBuddyTransformer.ModifiersArgument int modifiers
+                @BlockingCallsByteBuddyTransformer.MethodIdArgument int methodId
+        ) {
+            BlockHoundRuntime.checkBlocking(methodId);
+        }
+    }
+
+    static class TimedBlockingCallAdvice {
+
+        @Advice.OnMethodEnter
+        static long onEnter(
+                @BlockingCallsByteBuddyTransformer.MethodIdArgument int methodId,
+                @Advice.Local("samplingInterval") int samplingInterval
+        ) {
+            // Kept for the exit, the sampling interval may change during the call
+            samplingInterval = BlockHoundRuntime.samplingInterval;
+            return BlockHoundRuntime.enterBlocking(methodId, samplingInterval);
+        }
+
+        @Advice.OnMethodExit(onThrowable = Throwable.class)
+        static void onExit(
+                @BlockingCallsByteBuddyTransformer.MethodIdArgument int methodId,
+                @Advice.Enter long startNanos,
+                @Advice.Local("samplingInterval") int samplingInterval
         ) {
-            BlockHoundRuntime.checkBlocking(declaringType, methodName, modifiers);
+            BlockHoundRuntime.exitBlocking(methodId, startNanos, samplingInterval);
         }
     }
 }
@@ -22,16 +22,31 @@ import static net.bytebuddy.jar.asm.Opcodes.ACC_STATIC;
 
 public class BlockingMethod implements Serializable {
 
+    /**
+     * The computed value of the versions without {@link #samplingInterval} and {@link #durationNanos}.
+     */
+    private static final long serialVersionUID = -5209126876898820628L;
+
     private final String className;
 
     private final String name;
 
     private final int modifiers;
 
+    private final int samplingInterval;
+
+    private final long durationNanos;
+
     public BlockingMethod(String className, String name, int modifiers) {
+        this(className, name, modifiers, 1, -1L);
+    }
+
+    BlockingMethod(String className, String name, int modifiers, int samplingInterval, long durationNanos) {
         this.className = className;
         this.name = name;
         this.modifiers = modifiers;
+        this.samplingInterval = samplingInterval;
+        this.durationNanos = durationNanos;
     }
 
     /**
@@ -55,6 +70,38 @@ public class BlockingMethod implements Serializable {
         return modifiers;
     }
 
+    /**
+     * @return the sampling interval at which the call was detected, 1 if every call was checked.
+     * Multiply the number of detected calls by it to estimate the actual number of calls.
+     * see {@link BlockHound.Builder#samplingInterval(int)}
+     */
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    /**
+     * @return the duration of the blocking call in nanoseconds, or -1 if it was not measured.
+     * see {@link BlockHound.Builder#measureBlockingCallDuration(java.time.Duration)}
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    BlockingMethod withDetails(int samplingInterval, long durationNanos) {
+        if (this.samplingInterval == samplingInterval && this.durationNanos == durationNanos) {
+            return this;
+        }
+        return new BlockingMethod(className, name, modifiers, samplingInterval, durationNanos);
+    }
+
+    /**
+     * The streams of the previous versions have neither {@link #samplingInterval} nor {@link #durationNanos},
+     * which are then deserialized as 0 while the sampling interval is at least 1.
+     */
+    private Object readResolve() {
+        return samplingInterval == 0 ? new BlockingMethod(className, name, modifiers) : this;
+    }
+
     public boolean isStatic() {
         return (getModifiers() & ACC_STATIC) != 0;
     }
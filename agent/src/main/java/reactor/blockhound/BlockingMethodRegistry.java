@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns an int ID to every blocking method and publishes the matching {@link BlockingMethod}
+ * to {@link BlockHoundRuntime#blockingMethods}, so that the instrumented code only has to push
+ * a constant and the runtime does not need to allocate anything when a blocking call is detected.
+ */
+class BlockingMethodRegistry {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    private final List<String> classNames = new ArrayList<>();
+
+    private final List<String> methodNames = new ArrayList<>();
+
+    /**
+     * Reserves an ID for the provided method without publishing it yet.
+     * Called at install time so that the IDs only depend on the configuration.
+     *
+     * @param internalClassName class' internal name (e.g. "java/lang/Thread")
+     * @param methodName a method name
+     * @param descriptor a method descriptor in JVM's format
+     * @return the ID of the method
+     */
+    synchronized int reserve(String internalClassName, String methodName, String descriptor) {
+        return ids.computeIfAbsent(internalClassName + "." + methodName + descriptor, __ -> {
+            classNames.add(internalClassName.replace("/", "."));
+            methodNames.add(methodName);
+            return classNames.size() - 1;
+        });
+    }
+
+    /**
+     * Reserves an ID (if not reserved yet) and publishes the {@link BlockingMethod} for it.
+     * Called when the method gets instrumented, since the modifiers are only known at that moment.
+     *
+     * @param internalClassName class' internal name (e.g. "java/lang/Thread")
+     * @param methodName a method name
+     * @param descriptor a method descriptor in JVM's format
+     * @param modifiers method's modifiers
+     * @return the ID of the method
+     */
+    synchronized int register(String internalClassName, String methodName, String descriptor, int modifiers) {
+        int id = reserve(internalClassName, methodName, descriptor);
+
+        Object[] current = BlockHoundRuntime.blockingMethods;
+        // The IDs of a previous installation may have been assigned to other methods, see BlockHound#uninstall()
+        if (id < current.length && isSameMethod((BlockingMethod) current[id], id, modifiers)) {
+            return id;
+        }
+
+        Object[] blockingMethods = Arrays.copyOf(current, Math.max(current.length, classNames.size()));
+        blockingMethods[id] = new BlockingMethod(classNames.get(id), methodNames.get(id), modifiers);
+        BlockHoundRuntime.blockingMethods = blockingMethods;
+        return id;
+    }
+
+    private boolean isSameMethod(BlockingMethod method, int id, int modifiers) {
+        return method != null &&
+                method.getModifiers() == modifiers &&
+                method.getClassName().equals(classNames.get(id)) &&
+                method.getName().equals(methodNames.get(id));
+    }
+
+    /**
+     * @return the number of reserved IDs
+     */
+    synchronized int size() {
+        return classNames.size();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import java.util.Arrays;
+
+/**
+ * Helpers to get the stacktrace of a detected blocking call without BlockHound's internal frames.
+ */
+final class BlockingStackTraces {
+
+    static final String RUNTIME_CLASS_NAME = BlockHoundRuntime.class.getName();
+
+    static final String CHECK_METHOD_NAME = "checkBlocking";
+
+    static final String EXIT_METHOD_NAME = "exitBlocking";
+
+    /**
+     * The frames seen before the reporting method are buffered in case it is not found,
+     * but no more than this number of them.
+     */
+    static final int MAX_SKIPPED_FRAMES = 256;
+
+    /**
+     * @return the current stacktrace, starting at the blocking method
+     */
+    static StackTraceElement[] capture() {
+        return strip(new Throwable().getStackTrace());
+    }
+
+    /**
+     * Captures at most {@code maxDepth} frames of the current stack, starting at the blocking method.
+     * On JDK 11+, the stack is walked with {@code StackWalker}, which stops after {@code maxDepth} frames
+     * and does not create the {@link StackTraceElement}s until {@link CallStack#toStackTrace()} is called,
+     * see {@link StackWalking}.
+     *
+     * @param maxDepth the maximum number of frames to capture
+     * @return the captured call stack
+     */
+    static CallStack capture(int maxDepth) {
+        return StackWalking.capture(maxDepth);
+    }
+
+    /**
+     * Strips BlockHound's internal noisy frames from the stacktrace to not mislead the users
+     *
+     * @param stackTrace a stacktrace captured while reporting a blocking call
+     * @return the frames after the reporting method, or the provided stacktrace if not found
+     */
+    static StackTraceElement[] strip(StackTraceElement[] stackTrace) {
+        int length = stackTrace.length;
+        for (int i = 0; i < length; i++) {
+            StackTraceElement stackTraceElement = stackTrace[i];
+            if (isReportingFrame(stackTraceElement.getClassName(), stackTraceElement.getMethodName())) {
+                if (i + 1 < length) {
+                    return Arrays.copyOfRange(stackTrace, i + 1, length);
+                }
+                break;
+            }
+        }
+        return stackTrace;
+    }
+
+    /**
+     * @return whether the frame is {@link BlockHoundRuntime#checkBlocking(int)} or {@link BlockHoundRuntime#exitBlocking(int, long, int)},
+     * which are directly called by the blocking method
+     */
+    static boolean isReportingFrame(String className, String methodName) {
+        return RUNTIME_CLASS_NAME.equals(className) &&
+                (CHECK_METHOD_NAME.equals(methodName) || EXIT_METHOD_NAME.equals(methodName));
+    }
+
+    private BlockingStackTraces() {
+    }
+
+    /**
+     * The frames of a blocking call's stack, starting at the blocking method.
+     */
+    abstract static class CallStack {
+
+        abstract int size();
+
+        abstract String getClassName(int index);
+
+        abstract String getMethodName(int index);
+
+        /**
+         * @param index the index of the frame
+         * @return a number identifying the position in the method (line number or bytecode index)
+         */
+        abstract int getPosition(int index);
+
+        abstract StackTraceElement[] toStackTrace();
+    }
+
+    static final class StackTraceCallStack extends CallStack {
+
+        final StackTraceElement[] stackTrace;
+
+        StackTraceCallStack(StackTraceElement[] stackTrace) {
+            this.stackTrace = stackTrace;
+        }
+
+        @Override
+        int size() {
+            return stackTrace.length;
+        }
+
+        @Override
+        String getClassName(int index) {
+            return stackTrace[index].getClassName();
+        }
+
+        @Override
+        String getMethodName(int index) {
+            return stackTrace[index].getMethodName();
+        }
+
+        @Override
+        int getPosition(int index) {
+            return stackTrace[index].getLineNumber();
+        }
+
+        @Override
+        StackTraceElement[] toStackTrace() {
+            return stackTrace.clone();
+        }
+    }
+}
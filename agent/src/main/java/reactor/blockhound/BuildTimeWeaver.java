@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.TypeResolutionStrategy;
+import net.bytebuddy.dynamic.scaffold.MethodGraph;
+import net.bytebuddy.dynamic.scaffold.TypeValidation;
+import net.bytebuddy.pool.TypePool;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Weaves the (dis-)allowances into the compiled classes at build time, so that these classes are not retransformed
+ * when BlockHound is installed:
+ * <pre>
+ * java -cp blockhound.jar reactor.blockhound.BuildTimeWeaver --classes build/classes/java/main --out build/blockhound/classes
+ *     [--classpath &lt;dependencies&gt;] [--allow com.example.Foo#bar] [--disallow com.example.Foo#baz]
+ * </pre>
+ * Every class of the {@code --classes} directories is copied to the {@code --out} directory, and the classes with
+ * (dis-)allowances are woven with the same advice as {@link AllowancesByteBuddyTransformer}. The woven classes must only
+ * be run with the agent, and their (dis-)allowances must not be passed to it again.
+ */
+final class BuildTimeWeaver {
+
+    static final String USAGE = "Usage: java -cp blockhound.jar reactor.blockhound.BuildTimeWeaver --classes <dir> --out <dir> " +
+            "[--classpath <path>] [--allow <class>#<method>] [--disallow <class>#<method>]";
+
+    public static void main(String[] arguments) throws IOException {
+        List<String> args = Arrays.asList(arguments);
+        List<Path> classes = new ArrayList<>();
+        List<Path> classpath = new ArrayList<>();
+        Path out = null;
+        Map<String, Map<String, Boolean>> allowances = new HashMap<>();
+        for (int i = 0; i < args.size(); i += 2) {
+            if (i + 1 >= args.size()) {
+                throw new IllegalArgumentException("Missing the value of " + args.get(i) + "\n" + USAGE);
+            }
+            String value = args.get(i + 1);
+            switch (args.get(i)) {
+                case "--classes":
+                    classes.add(Paths.get(value));
+                    break;
+                case "--classpath":
+                    for (String entry : value.split(File.pathSeparator)) {
+                        if (!entry.isEmpty()) {
+                            classpath.add(Paths.get(entry));
+                        }
+                    }
+                    break;
+                case "--out":
+                    out = Paths.get(value);
+                    break;
+                case "--allow":
+                case "--disallow":
+                    boolean allowed = "--allow".equals(args.get(i));
+                    for (String[] method : AgentArguments.parseMethods(value)) {
+                        allowances.computeIfAbsent(method[0], __ -> new HashMap<>()).put(method[1], allowed);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args.get(i) + "\n" + USAGE);
+            }
+        }
+        if (classes.isEmpty() || out == null) {
+            throw new IllegalArgumentException("--classes and --out are required\n" + USAGE);
+        }
+
+        int woven = weave(classes, classpath, out, allowances);
+        System.out.println("Woven " + woven + " classes into " + out);
+    }
+
+    /**
+     * @return the number of woven classes
+     */
+    static int weave(
+            List<Path> classes,
+            List<Path> classpath,
+            Path out,
+            Map<String, Map<String, Boolean>> allowances
+    ) throws IOException {
+        List<ClassFileLocator> locators = new ArrayList<>();
+        for (Path directory : classes) {
+            locators.add(new ClassFileLocator.ForFolder(directory.toFile()));
+        }
+        for (Path entry : classpath) {
+            if (Files.isDirectory(entry)) {
+                locators.add(new ClassFileLocator.ForFolder(entry.toFile()));
+            }
+            else if (Files.isRegularFile(entry)) {
+                locators.add(ClassFileLocator.ForJarFile.of(entry.toFile()));
+            }
+        }
+        // The JDK classes
+        locators.add(ClassFileLocator.ForClassLoader.ofSystemLoader());
+
+        ClassFileLocator locator = new ClassFileLocator.Compound(locators);
+        try {
+            TypePool typePool = new TypePool.Default(new TypePool.CacheProvider.Simple(), locator, TypePool.Default.ReaderMode.FAST);
+            ByteBuddy byteBuddy = new ByteBuddy()
+                    .with(TypeValidation.DISABLED)
+                    .with(MethodGraph.Compiler.ForDeclaredMethods.INSTANCE);
+            AllowancesByteBuddyTransformer transformer = new AllowancesByteBuddyTransformer(() -> allowances);
+
+            int woven = 0;
+            for (Path directory : classes) {
+                List<Path> files;
+                try (Stream<Path> stream = Files.walk(directory)) {
+                    files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+                }
+
+                for (Path file : files) {
+                    Path relativePath = directory.relativize(file);
+                    Path target = out.resolve(relativePath.toString());
+                    Files.createDirectories(target.getParent());
+
+                    String fileName = relativePath.toString().replace(File.separatorChar, '/');
+                    String className = fileName.endsWith(".class") ?
+                            fileName.substring(0, fileName.length() - ".class".length()).replace('/', '.') : null;
+                    if (className == null || !allowances.containsKey(className)) {
+                        Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+                        continue;
+                    }
+
+                    TypeDescription typeDescription = typePool.describe(className).resolve();
+                    DynamicType.Builder<?> builder = transformer.transform(
+                            byteBuddy.redefine(typeDescription, locator),
+                            typeDescription,
+                            null,
+                            null,
+                            null
+                    );
+                    Files.write(target, builder.make(TypeResolutionStrategy.Passive.INSTANCE, typePool).getBytes());
+                    woven++;
+                }
+            }
+            return woven;
+        }
+        finally {
+            locator.close();
+        }
+    }
+
+    private BuildTimeWeaver() {
+    }
+}
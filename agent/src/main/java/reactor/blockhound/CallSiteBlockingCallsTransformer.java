@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.asm.AsmVisitorWrapper;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.matcher.ElementMatchers;
+import net.bytebuddy.pool.TypePool;
+import net.bytebuddy.utility.JavaModule;
+
+import java.security.ProtectionDomain;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * This transformer checks the blocking calls at their call sites, i.e. it inserts
+ * {@link BlockHoundRuntime#checkBlocking(int)} before every invocation of the provided methods,
+ * so that the invoked methods (e.g. the intrinsic {@link Thread#onSpinWait()}) are not instrumented
+ * and the callers in the other classes do not pay for the check.
+ * <p>
+ * The invocations are matched by the class referenced at the call site (the static type of the receiver),
+ * or by one of its super classes, e.g. {@code MyThread.sleep(long)}. The invocations through a super type
+ * of the blocking class (e.g. {@code InputStream.read()} on a {@code FileInputStream}) are not detected.
+ */
+class CallSiteBlockingCallsTransformer implements AgentBuilder.Transformer {
+
+    private static final String CHECK_BLOCKING_DESCRIPTOR = "(I)V";
+
+    /**
+     * The public API of the default blocking methods of {@link BlockHound.Builder}, since the call sites
+     * do not invoke their private native methods.
+     */
+    static final Map<String, Map<String, Set<String>>> PUBLIC_BLOCKING_METHODS;
+
+    static {
+        Map<String, Map<String, Set<String>>> methods = new HashMap<>();
+        add(methods, "java/lang/Object", "wait", "()V", "(J)V", "(JI)V");
+        add(methods, "java/lang/Thread", "sleep", "(J)V", "(JI)V", "(Ljava/time/Duration;)V");
+        add(methods, "java/lang/Thread", "yield", "()V");
+        add(methods, "java/lang/Thread", "onSpinWait", "()V");
+        add(methods, "java/util/concurrent/locks/LockSupport", "park", "()V", "(Ljava/lang/Object;)V");
+        add(methods, "java/util/concurrent/locks/LockSupport", "parkNanos", "(J)V", "(Ljava/lang/Object;J)V");
+        add(methods, "java/util/concurrent/locks/LockSupport", "parkUntil", "(J)V", "(Ljava/lang/Object;J)V");
+        add(methods, "java/io/FileInputStream", "read", "()I", "([B)I", "([BII)I");
+        add(methods, "java/io/FileOutputStream", "write", "(I)V", "([B)V", "([BII)V");
+        add(methods, "java/io/RandomAccessFile", "read", "()I", "([B)I", "([BII)I");
+        add(methods, "java/io/RandomAccessFile", "readFully", "([B)V", "([BII)V");
+        add(methods, "java/io/RandomAccessFile", "write", "(I)V", "([B)V", "([BII)V");
+        add(methods, "java/net/Socket", "connect", "(Ljava/net/SocketAddress;)V", "(Ljava/net/SocketAddress;I)V");
+        add(methods, "java/net/ServerSocket", "accept", "()Ljava/net/Socket;");
+        add(methods, "java/net/DatagramSocket", "connect", "(Ljava/net/InetAddress;I)V", "(Ljava/net/SocketAddress;)V");
+        add(methods, "java/net/DatagramSocket", "send", "(Ljava/net/DatagramPacket;)V");
+        add(methods, "java/net/DatagramSocket", "receive", "(Ljava/net/DatagramPacket;)V");
+        add(methods, "java/lang/ProcessBuilder", "start", "()Ljava/lang/Process;");
+        add(methods, "java/lang/Runtime", "exec", "(Ljava/lang/String;)Ljava/lang/Process;", "([Ljava/lang/String;)Ljava/lang/Process;");
+        PUBLIC_BLOCKING_METHODS = Collections.unmodifiableMap(methods);
+    }
+
+    private static void add(Map<String, Map<String, Set<String>>> methods, String internalClassName, String methodName, String... descriptors) {
+        methods.computeIfAbsent(internalClassName, __ -> new HashMap<>())
+               .put(methodName, Collections.unmodifiableSet(new HashSet<>(Arrays.asList(descriptors))));
+    }
+
+    private final Supplier<Map<String, Map<String, Set<String>>>> callSiteMethods;
+
+    private final BlockingMethodRegistry registry;
+
+    CallSiteBlockingCallsTransformer(
+            Supplier<Map<String, Map<String, Set<String>>>> callSiteMethods,
+            BlockingMethodRegistry registry
+    ) {
+        this.callSiteMethods = callSiteMethods;
+        this.registry = registry;
+    }
+
+    @Override
+    public DynamicType.Builder<?> transform(
+            DynamicType.Builder<?> builder,
+            TypeDescription typeDescription,
+            ClassLoader classLoader,
+            JavaModule module,
+            ProtectionDomain protectionDomain
+    ) {
+        Map<String, Map<String, Set<String>>> methods = callSiteMethods.get();
+        Set<String> methodNames = new HashSet<>();
+        methods.values().forEach(it -> methodNames.addAll(it.keySet()));
+        return builder.visit(new AsmVisitorWrapper.ForDeclaredMethods().invokable(
+                ElementMatchers.any(),
+                (instrumentedType, instrumentedMethod, methodVisitor, implementationContext, typePool, writerFlags, readerFlags) ->
+                        new CallSiteMethodVisitor(methodVisitor, methods, methodNames, typePool)
+        ));
+    }
+
+    private class CallSiteMethodVisitor extends MethodVisitor {
+
+        private final Map<String, Map<String, Set<String>>> methods;
+
+        private final Set<String> methodNames;
+
+        private final TypePool typePool;
+
+        private boolean instrumented;
+
+        CallSiteMethodVisitor(
+                MethodVisitor methodVisitor,
+                Map<String, Map<String, Set<String>>> methods,
+                Set<String> methodNames,
+                TypePool typePool
+        ) {
+            super(Opcodes.ASM7, methodVisitor);
+            this.methods = methods;
+            this.methodNames = methodNames;
+            this.typePool = typePool;
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            // Most of the invocations are rejected by their name, before resolving any type
+            MethodDescription blockingMethod = methodNames.contains(name) ? findBlockingMethod(owner, name, descriptor) : null;
+            if (blockingMethod != null) {
+                super.visitLdcInsn(registry.register(
+                        blockingMethod.getDeclaringType().asErasure().getInternalName(),
+                        name,
+                        descriptor,
+                        blockingMethod.getModifiers()
+                ));
+                super.visitMethodInsn(
+                        Opcodes.INVOKESTATIC,
+                        NativeWrappingClassFileTransformer.BLOCK_HOUND_RUNTIME_TYPE.getInternalName(),
+                        "checkBlocking",
+                        CHECK_BLOCKING_DESCRIPTOR,
+                        false
+                );
+                instrumented = true;
+            }
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+        }
+
+        @Override
+        public void visitMaxs(int maxStack, int maxLocals) {
+            // The method ID is pushed on top of the current stack
+            super.visitMaxs(instrumented ? maxStack + 1 : maxStack, maxLocals);
+        }
+
+        /**
+         * @return the blocking method declared by the owner or by one of its super classes, null if none
+         */
+        private MethodDescription findBlockingMethod(String owner, String name, String descriptor) {
+            if (owner.startsWith("[")) {
+                // e.g. the clone() of an array
+                return null;
+            }
+
+            TypePool.Resolution resolution = typePool.describe(owner.replace('/', '.'));
+            if (!resolution.isResolved()) {
+                return null;
+            }
+            for (TypeDefinition type = resolution.resolve(); type != null; type = type.getSuperClass()) {
+                TypeDescription erasure = type.asErasure();
+                Map<String, Set<String>> methodsOfType = methods.get(erasure.getInternalName());
+                Set<String> descriptors = methodsOfType == null ? null : methodsOfType.get(name);
+                if (descriptors == null || !descriptors.contains(descriptor)) {
+                    continue;
+                }
+                for (MethodDescription.InDefinedShape method : erasure.getDeclaredMethods()) {
+                    if (method.getInternalName().equals(name) && method.getDescriptor().equals(descriptor)) {
+                        return method;
+                    }
+                }
+                // Not declared anymore (e.g. by another JDK version)
+                return null;
+            }
+            return null;
+        }
+    }
+}
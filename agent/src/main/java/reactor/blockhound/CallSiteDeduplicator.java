@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Reports only the first blocking call of every call site to the delegate and counts the subsequent ones.
+ * <p>
+ * Call sites are identified by a hash of the blocking method and the top frames of the stacktrace,
+ * and stored in a fixed-size open addressing table that is updated with CAS operations only.
+ * When the table is full, the blocking calls of the new call sites are reported to the delegate as is.
+ */
+class CallSiteDeduplicator implements Consumer<BlockingMethod> {
+
+    static final int CAPACITY = 1024;
+
+    private final Consumer<BlockingMethod> delegate;
+
+    private final int stackDepth;
+
+    private final long summaryIntervalNanos;
+
+    private final Consumer<List<BlockingCallSite>> summaryConsumer;
+
+    // `0` means "free slot", see hash()
+    private final AtomicLongArray keys = new AtomicLongArray(CAPACITY);
+
+    private final AtomicLongArray counts = new AtomicLongArray(CAPACITY);
+
+    private final AtomicLongArray summarizedCounts = new AtomicLongArray(CAPACITY);
+
+    private final AtomicReferenceArray<BlockingCallSite> callSites = new AtomicReferenceArray<>(CAPACITY);
+
+    private final AtomicLong nextSummaryNanos;
+
+    CallSiteDeduplicator(
+            Consumer<BlockingMethod> delegate,
+            int stackDepth,
+            long summaryIntervalNanos,
+            Consumer<List<BlockingCallSite>> summaryConsumer
+    ) {
+        this.delegate = delegate;
+        this.stackDepth = stackDepth;
+        this.summaryIntervalNanos = summaryIntervalNanos;
+        this.summaryConsumer = summaryConsumer;
+        this.nextSummaryNanos = new AtomicLong(System.nanoTime() + summaryIntervalNanos);
+    }
+
+    @Override
+    public void accept(BlockingMethod method) {
+        BlockingStackTraces.CallStack callStack = BlockingStackTraces.capture(stackDepth);
+        long key = hash(method, callStack);
+
+        boolean first = false;
+        boolean found = false;
+        int mask = CAPACITY - 1;
+        int index = (int) key & mask;
+        for (int probe = 0; probe < CAPACITY; probe++, index = (index + 1) & mask) {
+            long current = keys.get(index);
+            if (current == 0L) {
+                if (!keys.compareAndSet(index, 0L, key)) {
+                    current = keys.get(index);
+                }
+                else {
+                    // Only the first occurrence pays the price of creating the StackTraceElements
+                    callSites.set(index, new BlockingCallSite(method, callStack.toStackTrace(), 0, 0));
+                    first = true;
+                    current = key;
+                }
+            }
+
+            if (current == key) {
+                counts.incrementAndGet(index);
+                found = true;
+                break;
+            }
+        }
+
+        try {
+            // Report the first occurrence (or every occurrence if the table is full) with all the details
+            if (first || !found) {
+                delegate.accept(method);
+            }
+        }
+        finally {
+            maybeSummarize();
+        }
+    }
+
+    private void maybeSummarize() {
+        if (summaryConsumer == null) {
+            return;
+        }
+
+        long deadline = nextSummaryNanos.get();
+        long now = System.nanoTime();
+        if (now - deadline < 0 || !nextSummaryNanos.compareAndSet(deadline, now + summaryIntervalNanos)) {
+            return;
+        }
+
+        List<BlockingCallSite> summary = snapshot();
+        if (!summary.isEmpty()) {
+            summaryConsumer.accept(summary);
+        }
+    }
+
+    /**
+     * @return the call sites with new blocking calls since the previous snapshot
+     */
+    List<BlockingCallSite> snapshot() {
+        List<BlockingCallSite> result = new ArrayList<>();
+        for (int i = 0; i < CAPACITY; i++) {
+            BlockingCallSite callSite = callSites.get(i);
+            if (callSite == null) {
+                continue;
+            }
+
+            long count = counts.get(i);
+            long previous = summarizedCounts.getAndSet(i, count);
+            if (count > previous) {
+                result.add(new BlockingCallSite(callSite.getMethod(), callSite.getStackTrace(), count, count - previous));
+            }
+        }
+        return result;
+    }
+
+    static long hash(BlockingMethod method, BlockingStackTraces.CallStack callStack) {
+        long h = method.getClassName().hashCode() * 31L + method.getName().hashCode();
+        for (int i = 0, depth = callStack.size(); i < depth; i++) {
+            h = h * 31L + callStack.getClassName(i).hashCode();
+            h = h * 31L + callStack.getMethodName(i).hashCode();
+            h = h * 31L + callStack.getPosition(i);
+        }
+
+        // MurmurHash3's finalizer, to spread the bits before masking
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0L ? 1L : h;
+    }
+}
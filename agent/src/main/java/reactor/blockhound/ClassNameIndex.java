@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import java.util.Collection;
+
+/**
+ * An immutable set of internal class names (e.g. "java/lang/Thread") and package prefixes (e.g. "com/example/"),
+ * consulted for every loaded class before any ByteBuddy work, see {@link FastRejectingClassFileTransformer}.
+ * <p>
+ * The names are stored in an open addressing table with their hashes, so that a lookup is one hash computation
+ * and, in most cases, a single probe without any indirection nor allocation.
+ */
+final class ClassNameIndex {
+
+    private final String[] names;
+
+    private final int[] hashes;
+
+    private final int mask;
+
+    private final String[] packagePrefixes;
+
+    ClassNameIndex(Collection<String> internalClassNames, Collection<String> packagePrefixes) {
+        this.packagePrefixes = packagePrefixes.toArray(new String[0]);
+        int capacity = Integer.highestOneBit(Math.max(internalClassNames.size(), 1) * 4 - 1) << 1;
+        this.names = new String[capacity];
+        this.hashes = new int[capacity];
+        this.mask = capacity - 1;
+
+        for (String name : internalClassNames) {
+            int hash = name.hashCode();
+            int index = hash & mask;
+            while (names[index] != null && !names[index].equals(name)) {
+                index = (index + 1) & mask;
+            }
+            names[index] = name;
+            hashes[index] = hash;
+        }
+    }
+
+    boolean contains(String internalClassName) {
+        int hash = internalClassName.hashCode();
+        for (int index = hash & mask; ; index = (index + 1) & mask) {
+            String name = names[index];
+            if (name == null) {
+                return startsWithPackagePrefix(internalClassName);
+            }
+            if (hashes[index] == hash && name.equals(internalClassName)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean startsWithPackagePrefix(String internalClassName) {
+        for (String packagePrefix : packagePrefixes) {
+            if (internalClassName.startsWith(packagePrefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
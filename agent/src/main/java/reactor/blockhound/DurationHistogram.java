@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size log-linear histogram of durations in nanoseconds.
+ * <p>
+ * The values below {@code 2 * SUB_BUCKET_COUNT} are counted exactly, then every power of 2 is split
+ * into {@link #SUB_BUCKET_COUNT} linear sub-buckets, which bounds the relative error to {@code 1 / SUB_BUCKET_COUNT}.
+ * The values greater than {@link #MAX_VALUE} (about 4.8 hours) are counted in the last bucket.
+ * Recording is lock-free and does not allocate.
+ */
+final class DurationHistogram {
+
+    static final int SUB_BUCKET_BITS = 5;
+
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    static final int MAX_VALUE_BITS = 44;
+
+    static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+
+    static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void record(long durationNanos) {
+        long value = Math.max(0, Math.min(durationNanos, MAX_VALUE));
+        counts.incrementAndGet(bucketIndex(value));
+        totalNanos.addAndGet(value);
+
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * @param reset whether the recorded durations should be cleared
+     * @return the counts of every bucket, followed by the total and the maximum durations
+     */
+    long[] snapshot(boolean reset) {
+        long[] result = new long[BUCKET_COUNT + 2];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            result[i] = reset ? counts.getAndSet(i, 0) : counts.get(i);
+        }
+        result[BUCKET_COUNT] = reset ? totalNanos.getAndSet(0) : totalNanos.get();
+        result[BUCKET_COUNT + 1] = reset ? maxNanos.getAndSet(0) : maxNanos.get();
+        return result;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < 2 * SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * @param index the index of a bucket
+     * @return the highest value counted in the bucket
+     */
+    static long highestValue(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.agent.builder.ResettableClassFileTransformer;
+
+import java.lang.instrument.IllegalClassFormatException;
+import java.security.ProtectionDomain;
+import java.util.function.Supplier;
+
+/**
+ * Decorates the ByteBuddy transformer, so that the classes that are neither blocking nor (dis-)allowing
+ * are rejected by a {@link ClassNameIndex} lookup, before ByteBuddy creates a type pool, parses the class
+ * and runs the type matchers. Since the transformer stays registered, this is the cost paid for every loaded class.
+ */
+class FastRejectingClassFileTransformer extends ResettableClassFileTransformer.WithDelegation {
+
+    /**
+     * The current index, since it is rebuilt by a reconfiguration, see {@link BlockHound#reconfigure(java.util.function.Consumer)}.
+     */
+    private final Supplier<ClassNameIndex> index;
+
+    FastRejectingClassFileTransformer(ResettableClassFileTransformer classFileTransformer, Supplier<ClassNameIndex> index) {
+        super(classFileTransformer);
+        this.index = index;
+    }
+
+    static AgentBuilder.TransformerDecorator decorator(Supplier<ClassNameIndex> index) {
+        return classFileTransformer -> new FastRejectingClassFileTransformer(classFileTransformer, index);
+    }
+
+    @Override
+    public byte[] transform(
+            ClassLoader loader,
+            String className,
+            Class<?> classBeingRedefined,
+            ProtectionDomain protectionDomain,
+            byte[] classfileBuffer
+    ) throws IllegalClassFormatException {
+        if (className == null || !index.get().contains(className)) {
+            return null;
+        }
+        return classFileTransformer.transform(loader, className, classBeingRedefined, protectionDomain, classfileBuffer);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Measures the consecutive phases of an installation, see {@link BlockHound#getInstallationTimings()}.
+ */
+final class InstallationTimer {
+
+    private final Map<BlockHound.InstallationPhase, Duration> timings = new EnumMap<>(BlockHound.InstallationPhase.class);
+
+    private long phaseStart = System.nanoTime();
+
+    /**
+     * Ends the provided phase, and starts the next one.
+     *
+     * @param phase the phase that started when the previous one ended
+     */
+    void endPhase(BlockHound.InstallationPhase phase) {
+        long now = System.nanoTime();
+        timings.put(phase, Duration.ofNanos(now - phaseStart));
+        phaseStart = now;
+    }
+
+    Map<BlockHound.InstallationPhase, Duration> getTimings() {
+        return Collections.unmodifiableMap(new EnumMap<>(timings));
+    }
+}
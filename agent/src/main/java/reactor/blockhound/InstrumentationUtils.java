@@ -21,6 +21,7 @@ import net.bytebuddy.jar.asm.ClassVisitor;
 import net.bytebuddy.jar.asm.ClassWriter;
 import net.bytebuddy.jar.asm.Opcodes;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -53,10 +54,10 @@ class InstrumentationUtils {
         tempJarFile.deleteOnExit();
 
         ClassLoader classLoader = BlockHound.class.getClassLoader();
-        try (ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(tempJarFile))) {
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(tempJarFile)))) {
             for (String className : classNames) {
                 String classFile = className.replace(".", "/") + ".class";
-                try (InputStream inputStream = classLoader.getResourceAsStream(classFile)) {
+                try (InputStream inputStream = getVersionedResourceAsStream(classLoader, classFile)) {
                     ZipEntry entry = new ZipEntry(classFile);
                     zipOutputStream.putNextEntry(entry);
 
@@ -74,6 +75,25 @@ class InstrumentationUtils {
         instrumentation.appendToBootstrapClassLoaderSearch(new JarFile(tempJarFile));
     }
 
+    /**
+     * Looks up the resource of the current JDK in the multi-release part of the agent explicitly, since the classloader
+     * of the agent may not be multi-release aware (e.g. a custom classloader), and the bootstrap classloader must get
+     * the classes of the current JDK (e.g. {@code VirtualThreads} on JDK 21+).
+     *
+     * @param classLoader the classloader of the agent
+     * @param resource the name of the resource, e.g. "reactor/blockhound/BlockHoundRuntime.class"
+     * @return the most recent version of the resource for the current JDK, or the one of JDK 8
+     */
+    static InputStream getVersionedResourceAsStream(ClassLoader classLoader, String resource) {
+        for (int version = jdkMajorVersion; version >= 9; version--) {
+            InputStream inputStream = classLoader.getResourceAsStream("META-INF/versions/" + version + "/" + resource);
+            if (inputStream != null) {
+                return inputStream;
+            }
+        }
+        return classLoader.getResourceAsStream(resource);
+    }
+
     /**
      * Makes the class, fields and methods public
      */
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Detects the blocking calls from the JFR events instead of instrumenting the blocking methods,
+ * see {@link BlockHound.Builder#jfrStreaming(Duration)}.
+ * <p>
+ * JFR event streaming is not available before JDK 14, this class is replaced on JDK 14+ by the one in {@code src/main/java14}
+ * (the multi-release part of the agent).
+ */
+final class JfrBlockingCallDetector {
+
+    /**
+     * @return whether the JFR events can be streamed on this JDK
+     */
+    static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Starts streaming the JFR events.
+     *
+     * @param thresholds the minimum duration of the streamed events, per event name
+     * @param allowances the allowances of {@link BlockHound.Builder}, applied to the stacktraces of the events
+     * @param threadPredicate the non-blocking thread predicate, evaluated when the event is received
+     * @param callback the consumer of the detected blocking calls
+     */
+    static void start(
+            Map<String, Duration> thresholds,
+            Map<String, Map<String, Boolean>> allowances,
+            Predicate<Thread> threadPredicate,
+            Consumer<BlockingMethod> callback
+    ) {
+        throw new UnsupportedOperationException("JFR event streaming requires JDK 14+");
+    }
+
+    /**
+     * Stops streaming the JFR events.
+     */
+    static void stop() {
+    }
+
+    private JfrBlockingCallDetector() {
+    }
+}
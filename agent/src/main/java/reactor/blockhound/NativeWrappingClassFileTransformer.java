@@ -22,23 +22,24 @@ import java.lang.instrument.ClassFileTransformer;
 import java.security.ProtectionDomain;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static net.bytebuddy.jar.asm.Opcodes.*;
 
 /**
  * This ASM-based transformer finds all methods defined in {@link NativeWrappingClassFileTransformer#blockingMethods}
- * and creates a delegating method by prefixing the original native method.
+ * (the current ones, since they can be reconfigured) and creates a delegating method by prefixing the original native method.
  *
  */
 class NativeWrappingClassFileTransformer implements ClassFileTransformer {
 
     static final Type BLOCK_HOUND_RUNTIME_TYPE = Type.getType("Lreactor/blockhound/BlockHoundRuntime;");
 
-    private final Map<String, Map<String, Set<String>>> blockingMethods;
+    private final Supplier<Map<String, Map<String, Set<String>>>> blockingMethods;
 
     private static final int JDK_18 = 18;
 
-    NativeWrappingClassFileTransformer(final Map<String, Map<String, Set<String>>> blockingMethods) {
+    NativeWrappingClassFileTransformer(final Supplier<Map<String, Map<String, Set<String>>>> blockingMethods) {
         this.blockingMethods = blockingMethods;
     }
 
@@ -50,7 +51,7 @@ class NativeWrappingClassFileTransformer implements ClassFileTransformer {
             ProtectionDomain protectionDomain,
             byte[] classfileBuffer
     ) {
-        Map<String, Set<String>> blockingMethodsOfClass = blockingMethods.get(className);
+        Map<String, Set<String>> blockingMethodsOfClass = blockingMethods.get().get(className);
         if (blockingMethodsOfClass == null) {
             return null;
         }
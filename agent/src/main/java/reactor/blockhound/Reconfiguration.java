@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import java.lang.instrument.Instrumentation;
+import java.lang.instrument.UnmodifiableClassException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * The difference between the installed blocking methods and (dis-)allowances and the reconfigured ones,
+ * see {@link BlockHound#reconfigure(java.util.function.Consumer)}: only the loaded classes whose configuration
+ * has changed are retransformed.
+ */
+final class Reconfiguration {
+
+    /**
+     * The binary names of the classes whose blocking methods or (dis-)allowances have changed.
+     */
+    final Set<String> changedClassNames = new HashSet<>();
+
+    /**
+     * The changed blocking methods, by internal class name, with all the blocking methods of their class.
+     */
+    final Map<String, Map<String, Set<String>>> addedBlockingMethods = new HashMap<>();
+
+    /**
+     * Whether the call sites of the blocking methods must be retransformed, with the call-site engine.
+     */
+    final boolean callSitesChanged;
+
+    Reconfiguration(
+            Map<String, Map<String, Set<String>>> installedBlockingMethods,
+            Map<String, Map<String, Boolean>> installedAllowances,
+            Map<String, Map<String, Set<String>>> blockingMethods,
+            Map<String, Map<String, Boolean>> allowances,
+            boolean callSiteEngine
+    ) {
+        blockingMethods.forEach((internalClassName, methods) -> {
+            if (!methods.equals(installedBlockingMethods.get(internalClassName))) {
+                changedClassNames.add(internalClassName.replace("/", "."));
+                addedBlockingMethods.put(internalClassName, methods);
+            }
+        });
+        allowances.forEach((className, methods) -> {
+            if (!methods.equals(installedAllowances.get(className))) {
+                changedClassNames.add(className);
+            }
+        });
+
+        callSitesChanged = callSiteEngine && !addedBlockingMethods.isEmpty();
+        if (callSitesChanged) {
+            // The blocking classes are not instrumented, but the call sites of their methods
+            addedBlockingMethods.keySet().forEach(internalClassName -> changedClassNames.remove(internalClassName.replace("/", ".")));
+        }
+    }
+
+    /**
+     * Retransforms the loaded classes whose configuration has changed, and the call-site classes if needed.
+     */
+    void retransform(Instrumentation instrumentation, Predicate<String> callSiteClasses) {
+        if (changedClassNames.isEmpty() && !callSitesChanged) {
+            return;
+        }
+
+        // The only way to find the loaded classes by name without loading them,
+        // but unlike the installation, only the changed classes are matched and retransformed
+        Class<?>[] changedClasses = Stream
+                .of(instrumentation.getAllLoadedClasses())
+                .filter(it -> changedClassNames.contains(it.getName()) ||
+                        (callSitesChanged && it.getName() != null && callSiteClasses.test(it.getName().replace('.', '/'))))
+                .toArray(Class[]::new);
+        if (changedClasses.length == 0) {
+            return;
+        }
+
+        try {
+            instrumentation.retransformClasses(changedClasses);
+        }
+        catch (UnmodifiableClassException e) {
+            throw new IllegalStateException("Failed to retransform the reconfigured classes", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.blockhound;
+
+import java.util.Arrays;
+
+/**
+ * Captures the call stacks of {@link BlockingStackTraces#capture(int)} from a {@link Throwable}'s stacktrace.
+ * <p>
+ * {@code StackWalker} is not available on JDK 8, this class is replaced on JDK 11+ by the one in {@code src/main/java11}
+ * (the multi-release part of the agent).
+ */
+final class StackWalking {
+
+    static BlockingStackTraces.CallStack capture(int maxDepth) {
+        StackTraceElement[] stackTrace = BlockingStackTraces.capture();
+        if (stackTrace.length > maxDepth) {
+            stackTrace = Arrays.copyOf(stackTrace, maxDepth);
+        }
+        return new BlockingStackTraces.StackTraceCallStack(stackTrace);
+    }
+
+    private StackWalking() {
+    }
+}
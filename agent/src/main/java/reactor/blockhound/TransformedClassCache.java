@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.agent.builder.ResettableClassFileTransformer;
+import net.bytebuddy.jar.asm.ClassReader;
+import net.bytebuddy.jar.asm.ClassVisitor;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+
+import java.io.IOException;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.IllegalClassFormatException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.ProtectionDomain;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Stores the transformed class files on disk, and serves them on the next starts instead of transforming the classes,
+ * see {@link BlockHound.Builder#cacheTransformedClasses(Path)}.
+ * <p>
+ * A class file is stored under the SHA-256 of the configuration (that includes the JDK and BlockHound versions)
+ * and of the class, once both {@link NativeWrappingClassFileTransformer} and ByteBuddy have transformed it.
+ * The bootstrap classes are identified by their name, since they only depend on the JDK, and since the bytes of
+ * a retransformed class are reconstituted by the JVM from the loaded class, which differs from a JVM to another.
+ * The other classes are identified by their bytes.
+ * On a hit, {@link #lookupTransformer()} (registered before them) returns the stored class file, and both transformers
+ * are skipped. Since a class goes through the transformers on a single thread, the state of the current transformation
+ * is kept per thread, by class name (a transformer may trigger the loading of other classes).
+ * <p>
+ * The classes whose call sites are checked (see {@link CallSiteBlockingCallsTransformer}) are not cached,
+ * since the blocking methods invoked by a served class file could not be published to {@link BlockingMethodRegistry}.
+ * <p>
+ * Since the method IDs of the advices are only stable for the installed configuration (see {@link BlockingMethodRegistry}),
+ * the cache is {@link #disable() disabled} by a reconfiguration.
+ * Reading or writing the cache is best-effort: the classes are transformed as usual on any I/O error.
+ */
+final class TransformedClassCache {
+
+    private static final String SERVED = "";
+
+    private final Path directory;
+
+    private final byte[] configurationKey;
+
+    private final Supplier<ClassNameIndex> index;
+
+    private final Supplier<Map<String, Map<String, Set<String>>>> blockingMethods;
+
+    private final BlockingMethodRegistry registry;
+
+    private final Predicate<String> callSiteClasses;
+
+    /**
+     * The key of the class files being transformed on this thread, or {@link #SERVED} if served from the cache.
+     */
+    private final ThreadLocal<Map<String, String>> transformations = ThreadLocal.withInitial(HashMap::new);
+
+    private volatile boolean enabled = true;
+
+    TransformedClassCache(
+            Path directory,
+            String configurationKey,
+            Supplier<ClassNameIndex> index,
+            Supplier<Map<String, Map<String, Set<String>>>> blockingMethods,
+            BlockingMethodRegistry registry,
+            Predicate<String> callSiteClasses
+    ) {
+        this.directory = directory;
+        this.configurationKey = configurationKey.getBytes(StandardCharsets.UTF_8);
+        this.index = index;
+        this.blockingMethods = blockingMethods;
+        this.registry = registry;
+        this.callSiteClasses = callSiteClasses;
+    }
+
+    /**
+     * Stops serving and storing the class files, e.g. after a reconfiguration.
+     */
+    void disable() {
+        enabled = false;
+    }
+
+    /**
+     * @return a transformer that serves the cached class files, to be registered before the other transformers
+     */
+    ClassFileTransformer lookupTransformer() {
+        return new ClassFileTransformer() {
+            @Override
+            public byte[] transform(
+                    ClassLoader loader,
+                    String className,
+                    Class<?> classBeingRedefined,
+                    ProtectionDomain protectionDomain,
+                    byte[] classfileBuffer
+            ) {
+                if (!enabled || className == null || !index.get().contains(className) || callSiteClasses.test(className)) {
+                    return null;
+                }
+                return lookup(className, loader == null ? null : classfileBuffer);
+            }
+        };
+    }
+
+    /**
+     * @return a transformer that delegates to the provided one, unless the class file was served from the cache
+     */
+    ClassFileTransformer skippingServed(ClassFileTransformer delegate) {
+        return new ClassFileTransformer() {
+            @Override
+            public byte[] transform(
+                    ClassLoader loader,
+                    String className,
+                    Class<?> classBeingRedefined,
+                    ProtectionDomain protectionDomain,
+                    byte[] classfileBuffer
+            ) throws IllegalClassFormatException {
+                if (className != null && index.get().contains(className) && SERVED.equals(transformations.get().get(className))) {
+                    return null;
+                }
+                return delegate.transform(loader, className, classBeingRedefined, protectionDomain, classfileBuffer);
+            }
+        };
+    }
+
+    /**
+     * @return a decorator of the ByteBuddy transformer (the last one) that stores its result,
+     * unless the class file was served from the cache
+     */
+    AgentBuilder.TransformerDecorator storingDecorator() {
+        return classFileTransformer -> new StoringClassFileTransformer(classFileTransformer);
+    }
+
+    /**
+     * @param classfileBuffer the bytes of the class, null for a bootstrap class
+     */
+    private byte[] lookup(String className, byte[] classfileBuffer) {
+        String key = key(className, classfileBuffer);
+        byte[] cached;
+        try {
+            cached = Files.readAllBytes(directory.resolve(key + ".class"));
+        }
+        catch (IOException e) {
+            // Not cached yet, stored once transformed
+            transformations.get().put(className, key);
+            return null;
+        }
+
+        registerBlockingMethods(className, cached);
+        transformations.get().put(className, SERVED);
+        return cached;
+    }
+
+    /**
+     * Publishes the blocking methods of the served class file, like {@link BlockingCallsByteBuddyTransformer} does
+     * when it instruments them.
+     */
+    private void registerBlockingMethods(String className, byte[] classfileBuffer) {
+        Map<String, Set<String>> methods = blockingMethods.get().get(className);
+        if (methods == null) {
+            return;
+        }
+
+        new ClassReader(classfileBuffer).accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                Set<String> descriptors = methods.get(name);
+                if (descriptors != null && descriptors.contains(descriptor)) {
+                    // Without ASM's pseudo access flags (e.g. ACC_DEPRECATED)
+                    registry.register(className, name, descriptor, access & 0xFFFF);
+                }
+                return null;
+            }
+        }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+    }
+
+    private void store(String key, byte[] classfileBuffer) {
+        Path file = directory.resolve(key + ".class");
+        Path tempFile = null;
+        try {
+            Files.createDirectories(directory);
+            // Written aside, then moved, since several JVMs may share the directory
+            tempFile = Files.createTempFile(directory, key, ".tmp");
+            Files.write(tempFile, classfileBuffer);
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException e) {
+            try {
+                if (tempFile != null) {
+                    Files.deleteIfExists(tempFile);
+                }
+            }
+            catch (IOException ignored) {
+            }
+        }
+    }
+
+    private String key(String className, byte[] classfileBuffer) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            // Required by the Java SE specification
+            throw new IllegalStateException(e);
+        }
+        digest.update(configurationKey);
+        digest.update(className.getBytes(StandardCharsets.UTF_8));
+        if (classfileBuffer != null) {
+            digest.update(classfileBuffer);
+        }
+        byte[] hash = digest.digest();
+
+        StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private final class StoringClassFileTransformer extends ResettableClassFileTransformer.WithDelegation {
+
+        StoringClassFileTransformer(ResettableClassFileTransformer classFileTransformer) {
+            super(classFileTransformer);
+        }
+
+        @Override
+        public byte[] transform(
+                ClassLoader loader,
+                String className,
+                Class<?> classBeingRedefined,
+                ProtectionDomain protectionDomain,
+                byte[] classfileBuffer
+        ) throws IllegalClassFormatException {
+            String key = className != null ? transformations.get().remove(className) : null;
+            if (SERVED.equals(key)) {
+                return null;
+            }
+
+            byte[] result = classFileTransformer.transform(loader, className, classBeingRedefined, protectionDomain, classfileBuffer);
+            // ByteBuddy matches every indexed class, it only returns null when the transformation failed
+            if (key != null && result != null && enabled) {
+                store(key, result);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.blockhound;
+
+/**
+ * Tells the virtual threads apart, see {@link BlockHound.Builder#reportPinnedVirtualThreads(boolean)}.
+ * Injected into the bootstrap classloader with {@link BlockHoundRuntime}, hence the public methods.
+ * <p>
+ * There are no virtual threads before JDK 21, this class is replaced on JDK 21+ by the one in {@code src/main/java21}
+ * (the multi-release part of the agent).
+ */
+final class VirtualThreads {
+
+    /**
+     * @return whether the virtual threads exist on this JDK
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * @param thread a thread
+     * @return whether the thread is a virtual thread
+     */
+    public static boolean isVirtual(Thread thread) {
+        return false;
+    }
+
+    /**
+     * @param internalClassName class' internal name (e.g. "java/lang/Object")
+     * @param methodName a method name
+     * @return whether a virtual thread only calls this blocking method while it is pinned to its carrier thread
+     */
+    public static boolean isPinning(String internalClassName, String methodName) {
+        return false;
+    }
+
+    private VirtualThreads() {
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Emits a {@link BlockingCallEvent} for every reported blocking call, see {@link BlockHound.Builder#emitJfrEvents(boolean)}.
+ * <p>
+ * The event is committed on the thread that made the blocking call (before the asynchronous reporting, if any),
+ * so that JFR records its thread and stacktrace. When the event is disabled, only {@link Event#isEnabled()} is called.
+ */
+final class BlockingCallEvents {
+
+    static boolean isSupported() {
+        return true;
+    }
+
+    static void start() {
+        BlockHoundRuntime.BlockingCallConsumer delegate = BlockHoundRuntime.blockingMethodConsumer;
+        BlockHoundRuntime.blockingMethodConsumer = (method, samplingInterval, durationNanos) -> {
+            BlockingCallEvent event = new BlockingCallEvent();
+            if (event.isEnabled()) {
+                event.blockingMethod = method.toString();
+                event.samplingInterval = samplingInterval;
+                event.blockingDuration = durationNanos;
+                event.commit();
+            }
+            delegate.accept(method, samplingInterval, durationNanos);
+        };
+    }
+
+    private BlockingCallEvents() {
+    }
+
+    @Name("reactor.blockhound.BlockingCall")
+    @Label("Blocking Call")
+    @Category("BlockHound")
+    @Description("A blocking call detected on a non-blocking thread")
+    @StackTrace
+    static final class BlockingCallEvent extends Event {
+
+        @Label("Blocking Method")
+        String blockingMethod;
+
+        @Label("Sampling Interval")
+        @Description("The sampling interval at which the blocking call was detected, 1 if every call is checked")
+        int samplingInterval;
+
+        @Label("Blocking Duration")
+        @Description("The duration of the blocking call, -1 if not measured")
+        @Timespan(Timespan.NANOSECONDS)
+        long blockingDuration;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.blockhound;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Captures the call stacks of {@link BlockingStackTraces#capture(int)} with {@link StackWalker},
+ * which stops after {@code maxDepth} frames and does not create the {@link StackTraceElement}s
+ * until {@link BlockingStackTraces.CallStack#toStackTrace()} is called.
+ */
+final class StackWalking {
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    static BlockingStackTraces.CallStack capture(int maxDepth) {
+        StackWalker.StackFrame[] frames = WALKER.walk(stream -> {
+            List<StackWalker.StackFrame> buffer = new ArrayList<>();
+            boolean found = false;
+            Iterator<StackWalker.StackFrame> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                StackWalker.StackFrame frame = iterator.next();
+                if (found) {
+                    buffer.add(frame);
+                    if (buffer.size() >= maxDepth) {
+                        break;
+                    }
+                    continue;
+                }
+
+                if (BlockingStackTraces.isReportingFrame(frame.getClassName(), frame.getMethodName())) {
+                    found = true;
+                    buffer.clear();
+                    continue;
+                }
+
+                buffer.add(frame);
+                if (buffer.size() >= BlockingStackTraces.MAX_SKIPPED_FRAMES) {
+                    // Not reported by BlockHoundRuntime, keep the top frames
+                    break;
+                }
+            }
+            return (buffer.size() > maxDepth ? buffer.subList(0, maxDepth) : buffer).toArray(new StackWalker.StackFrame[0]);
+        });
+        return new StackWalkerCallStack(frames);
+    }
+
+    private StackWalking() {
+    }
+
+    static final class StackWalkerCallStack extends BlockingStackTraces.CallStack {
+
+        final StackWalker.StackFrame[] frames;
+
+        StackWalkerCallStack(StackWalker.StackFrame[] frames) {
+            this.frames = frames;
+        }
+
+        @Override
+        int size() {
+            return frames.length;
+        }
+
+        @Override
+        String getClassName(int index) {
+            return frames[index].getClassName();
+        }
+
+        @Override
+        String getMethodName(int index) {
+            return frames[index].getMethodName();
+        }
+
+        @Override
+        int getPosition(int index) {
+            return frames[index].getByteCodeIndex();
+        }
+
+        @Override
+        StackTraceElement[] toStackTrace() {
+            StackTraceElement[] stackTrace = new StackTraceElement[frames.length];
+            for (int i = 0; i < frames.length; i++) {
+                stackTrace[i] = frames[i].toStackTraceElement();
+            }
+            return stackTrace;
+        }
+    }
+}
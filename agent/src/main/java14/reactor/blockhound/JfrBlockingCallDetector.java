@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Detects the blocking calls from the JFR events instead of instrumenting the blocking methods,
+ * see {@link BlockHound.Builder#jfrStreaming(Duration)}.
+ * <p>
+ * The events are received on the thread of the {@link RecordingStream}, after the blocking calls have completed.
+ * The blocking method is the top frame of the event's stacktrace, and the allowances are applied to the stacktrace:
+ * the first frame (from the top) that is allowed or disallowed decides.
+ * Since the thread that made the blocking call is only known by its ID, it is resolved from the live threads,
+ * and the events of the threads that have terminated in the meantime are ignored.
+ * <p>
+ * The non-blocking thread predicate is tested on every event, as if every thread was dynamic,
+ * so the dynamic thread predicate is not used.
+ */
+final class JfrBlockingCallDetector {
+
+    /**
+     * The maximum number of remembered IDs of the threads that could not be resolved.
+     */
+    static final int MAX_UNKNOWN_THREADS = 1024;
+
+    /**
+     * The stream of the installed detector, until it is stopped.
+     */
+    private static volatile RecordingStream stream;
+
+    static boolean isSupported() {
+        return true;
+    }
+
+    static void start(
+            Map<String, Duration> thresholds,
+            Map<String, Map<String, Boolean>> allowances,
+            Predicate<Thread> threadPredicate,
+            Consumer<BlockingMethod> callback
+    ) {
+        Handler handler = new Handler(allowances, threadPredicate, callback);
+
+        RecordingStream recordingStream = new RecordingStream();
+        thresholds.forEach((eventName, threshold) -> {
+            recordingStream.enable(eventName).withThreshold(threshold).withStackTrace();
+            recordingStream.onEvent(eventName, handler);
+        });
+        recordingStream.startAsync();
+        stream = recordingStream;
+    }
+
+    static void stop() {
+        RecordingStream recordingStream = stream;
+        if (recordingStream != null) {
+            stream = null;
+            recordingStream.close();
+        }
+    }
+
+    private JfrBlockingCallDetector() {
+    }
+
+    static final class Handler implements Consumer<RecordedEvent> {
+
+        final Map<String, Map<String, Boolean>> allowances;
+
+        final Predicate<Thread> threadPredicate;
+
+        final Consumer<BlockingMethod> callback;
+
+        /**
+         * Only accessed by the thread of the stream.
+         */
+        final Map<Long, WeakReference<Thread>> threads = new HashMap<>();
+
+        /**
+         * The IDs of the threads that were not alive anymore (or never enumerated, like the virtual threads).
+         * Thread IDs are never reused, so they are not looked up again. Only accessed by the thread of the stream.
+         */
+        final Set<Long> unknownThreads = new HashSet<>();
+
+        Handler(
+                Map<String, Map<String, Boolean>> allowances,
+                Predicate<Thread> threadPredicate,
+                Consumer<BlockingMethod> callback
+        ) {
+            this.allowances = allowances;
+            this.threadPredicate = threadPredicate;
+            this.callback = callback;
+        }
+
+        @Override
+        public void accept(RecordedEvent event) {
+            RecordedThread recordedThread = event.getThread();
+            RecordedStackTrace stackTrace = event.getStackTrace();
+            if (recordedThread == null || stackTrace == null || stackTrace.getFrames().isEmpty()) {
+                return;
+            }
+
+            try {
+                Thread thread = findThread(recordedThread.getJavaThreadId());
+                if (thread == null || !threadPredicate.test(thread) || isAllowed(stackTrace.getFrames())) {
+                    return;
+                }
+
+                RecordedMethod method = stackTrace.getFrames().get(0).getMethod();
+                BlockingMethod blockingMethod = new BlockingMethod(
+                        method.getType().getName(),
+                        method.getName(),
+                        method.getModifiers(),
+                        1,
+                        event.getDuration().toNanos()
+                );
+
+                try {
+                    callback.accept(blockingMethod);
+                }
+                catch (BlockingOperationError e) {
+                    // The stacktrace of the stream's thread is meaningless, use the one of the event
+                    e.setStackTrace(toStackTrace(stackTrace.getFrames()));
+                    throw e;
+                }
+            }
+            catch (Throwable e) {
+                Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, e);
+            }
+        }
+
+        private boolean isAllowed(List<RecordedFrame> frames) {
+            for (RecordedFrame frame : frames) {
+                RecordedMethod method = frame.getMethod();
+                if (method == null) {
+                    continue;
+                }
+
+                Map<String, Boolean> methods = allowances.get(method.getType().getName());
+                if (methods == null) {
+                    continue;
+                }
+
+                Boolean allowed = methods.get(method.getName());
+                if (allowed != null) {
+                    return allowed;
+                }
+            }
+            return false;
+        }
+
+        private Thread findThread(long threadId) {
+            WeakReference<Thread> reference = threads.get(threadId);
+            Thread thread = reference != null ? reference.get() : null;
+            if (thread != null) {
+                return thread;
+            }
+            if (unknownThreads.contains(threadId)) {
+                return null;
+            }
+
+            // Unknown thread, refresh the live threads
+            ThreadGroup root = Thread.currentThread().getThreadGroup();
+            while (root.getParent() != null) {
+                root = root.getParent();
+            }
+            Thread[] liveThreads = new Thread[root.activeCount() * 2 + 16];
+            int count = root.enumerate(liveThreads, true);
+
+            threads.clear();
+            for (int i = 0; i < count; i++) {
+                threads.put(liveThreads[i].getId(), new WeakReference<>(liveThreads[i]));
+            }
+
+            reference = threads.get(threadId);
+            thread = reference != null ? reference.get() : null;
+            if (thread == null) {
+                if (unknownThreads.size() >= MAX_UNKNOWN_THREADS) {
+                    unknownThreads.clear();
+                }
+                unknownThreads.add(threadId);
+            }
+            return thread;
+        }
+
+        private static StackTraceElement[] toStackTrace(List<RecordedFrame> frames) {
+            StackTraceElement[] result = new StackTraceElement[frames.size()];
+            for (int i = 0; i < result.length; i++) {
+                RecordedFrame frame = frames.get(i);
+                RecordedMethod method = frame.getMethod();
+                result[i] = new StackTraceElement(
+                        method.getType().getName(),
+                        method.getName(),
+                        null,
+                        frame.getLineNumber()
+                );
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.blockhound;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Callable;
+
+/**
+ * Carries the allowances of {@link BlockHound#allowBlocking(Callable)} to the threads forked inside them
+ * (e.g. the subtasks of a {@code StructuredTaskScope}), by binding the allowing thread to a {@code ScopedValue}.
+ * Injected into the bootstrap classloader with {@link BlockHoundRuntime}, hence the public methods.
+ * <p>
+ * {@code ScopedValue} is a preview API before JDK 25, that can't be compiled against, hence the {@link MethodHandle}s
+ * of the methods that did not change since JDK 21. They are constant-folded, since the fields are static and final.
+ * The allowing thread itself is allowed by its {@link BlockHoundRuntime.State}, so that its disallowed methods apply.
+ */
+final class AllowedScopes {
+
+    /**
+     * {@code null} if {@code ScopedValue} is not available (e.g. removed by a future JDK).
+     */
+    private static final Object ALLOWING_THREAD;
+
+    private static final MethodHandle WHERE;
+
+    private static final MethodHandle RUN;
+
+    private static final MethodHandle OR_ELSE;
+
+    static {
+        Object allowingThread = null;
+        MethodHandle where = null;
+        MethodHandle run = null;
+        MethodHandle orElse = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> scopedValueClass = Class.forName("java.lang.ScopedValue");
+            Class<?> carrierClass = Class.forName("java.lang.ScopedValue$Carrier");
+            allowingThread = lookup.findStatic(scopedValueClass, "newInstance", MethodType.methodType(scopedValueClass))
+                                   .invoke();
+            where = lookup.findStatic(scopedValueClass, "where", MethodType.methodType(carrierClass, scopedValueClass, Object.class))
+                          .asType(MethodType.methodType(Object.class, Object.class, Object.class));
+            run = lookup.findVirtual(carrierClass, "run", MethodType.methodType(void.class, Runnable.class))
+                        .asType(MethodType.methodType(void.class, Object.class, Runnable.class));
+            orElse = lookup.findVirtual(scopedValueClass, "orElse", MethodType.methodType(Object.class, Object.class))
+                           .asType(MethodType.methodType(Object.class, Object.class, Object.class));
+        }
+        catch (Throwable e) {
+            allowingThread = null;
+        }
+        ALLOWING_THREAD = allowingThread;
+        WHERE = where;
+        RUN = run;
+        OR_ELSE = orElse;
+    }
+
+    public static <T> T call(Callable<T> callable) throws Exception {
+        if (ALLOWING_THREAD == null) {
+            return callable.call();
+        }
+
+        Object[] result = new Object[1];
+        Exception[] exception = new Exception[1];
+        // Carrier.call's parameter changed in JDK 25, but not Carrier.run's
+        Runnable runnable = () -> {
+            try {
+                result[0] = callable.call();
+            }
+            catch (Exception e) {
+                exception[0] = e;
+            }
+        };
+        try {
+            Object carrier = WHERE.invokeExact(ALLOWING_THREAD, (Object) Thread.currentThread());
+            RUN.invokeExact(carrier, runnable);
+        }
+        catch (RuntimeException | Error e) {
+            throw e;
+        }
+        catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+
+        if (exception[0] != null) {
+            throw exception[0];
+        }
+        @SuppressWarnings("unchecked")
+        T value = (T) result[0];
+        return value;
+    }
+
+    public static boolean isInherited() {
+        if (ALLOWING_THREAD == null) {
+            return false;
+        }
+
+        Object allowingThread;
+        try {
+            allowingThread = OR_ELSE.invokeExact(ALLOWING_THREAD, (Object) null);
+        }
+        catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+        return allowingThread != null && allowingThread != Thread.currentThread();
+    }
+
+    private AllowedScopes() {
+    }
+}
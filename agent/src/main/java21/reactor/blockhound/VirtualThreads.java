@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.blockhound;
+
+/**
+ * Tells the virtual threads apart, see {@link BlockHound.Builder#reportPinnedVirtualThreads(boolean)}.
+ * Injected into the bootstrap classloader with {@link BlockHoundRuntime}, hence the public methods.
+ * <p>
+ * A virtual thread parks by unmounting from its carrier thread, it only reaches {@code Unsafe.park}
+ * from {@code VirtualThread.parkOnCarrierThread}, when it can't unmount (inside {@code synchronized} or a native frame).
+ * {@link Object#wait()} always pins the virtual thread before JDK 24 (JEP 491).
+ */
+final class VirtualThreads {
+
+    public static boolean isSupported() {
+        return true;
+    }
+
+    public static boolean isVirtual(Thread thread) {
+        return thread.isVirtual();
+    }
+
+    public static boolean isPinning(String internalClassName, String methodName) {
+        switch (internalClassName) {
+            case "jdk/internal/misc/Unsafe":
+            case "sun/misc/Unsafe":
+                return "park".equals(methodName);
+            case "java/lang/Object":
+                return "wait".equals(methodName) && Runtime.version().feature() < 24;
+            default:
+                return false;
+        }
+    }
+
+    private VirtualThreads() {
+    }
+}
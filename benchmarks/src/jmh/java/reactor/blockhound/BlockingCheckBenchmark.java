@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.blockhound;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the steady-state cost of a single blocking call check, without the thread start
+ * that dominates {@link BlockHoundBenchmark}. Every benchmark runs in its own fork,
+ * so each state installs BlockHound with a different non-blocking thread predicate.
+ *
+ * The "blocking" method is a regular Java method marked with {@link BlockHound.Builder#markAsBlocking(Class, String, String)}
+ * so that the numbers only include the instrumentation and not the cost of a syscall.
+ */
+@SuppressWarnings("WeakerAccess")
+@Fork(value = 1, jvmArgsAppend = "-XX:+AllowRedefinitionToAddDeleteMethods")
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BlockingCheckBenchmark {
+
+    static volatile long sink;
+
+    static void blockingMarker() {
+        sink++;
+    }
+
+    static void allowsBlockingCalls() {
+        blockingMarker();
+    }
+
+    static BlockHound.Builder builder() {
+        return BlockHound.builder()
+                .markAsBlocking(BlockingCheckBenchmark.class, "blockingMarker", "()V")
+                .allowBlockingCallsInside(BlockingCheckBenchmark.class.getName(), "allowsBlockingCalls")
+                .blockingMethodCallback(m -> {}); // Do not throw
+    }
+
+    static boolean isBenchmarkThread(Thread thread) {
+        return thread.getName().contains("jmh-worker");
+    }
+
+    @State(Scope.Benchmark)
+    public static class BlockingThreadState {
+
+        @Setup
+        public void prepare() {
+            builder().install();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class NonBlockingThreadState {
+
+        @Setup
+        public void prepare() {
+            builder()
+                    .nonBlockingThreadPredicate(p -> p.or(BlockingCheckBenchmark::isBenchmarkThread))
+                    .install();
+        }
+    }
+
+    @Benchmark
+    public void baselineCall() {
+        blockingMarker();
+    }
+
+    @Benchmark
+    public void measureCallInBlockingThread(BlockingThreadState state) {
+        blockingMarker();
+    }
+
+    @Benchmark
+    public void measureCallInNonBlockingThread(NonBlockingThreadState state) {
+        blockingMarker();
+    }
+
+    @Benchmark
+    public void measureAllowedCallInBlockingThread(BlockingThreadState state) {
+        allowsBlockingCalls();
+    }
+
+    @Benchmark
+    public void measureAllowedCallInNonBlockingThread(NonBlockingThreadState state) {
+        allowsBlockingCalls();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.blockhound;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CallSiteDeduplicator} under contention, with all threads reporting
+ * the same few call sites (the hot loop case it is designed for).
+ * It does not require BlockHound to be installed, the deduplicator is called directly.
+ */
+@SuppressWarnings("WeakerAccess")
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CallSiteDeduplicationBenchmark {
+
+    static final BlockingMethod METHOD = new BlockingMethod("java.lang.Thread", "yield", 0);
+
+    @State(Scope.Benchmark)
+    public static class DeduplicatorState {
+
+        final CallSiteDeduplicator deduplicator = new CallSiteDeduplicator(m -> {}, 5, TimeUnit.SECONDS.toNanos(1), summary -> {});
+    }
+
+    @Benchmark
+    public void baselineStackTrace(Blackhole blackhole) {
+        blackhole.consume(BlockingStackTraces.capture());
+    }
+
+    @Benchmark
+    public void baselineBoundedStackTrace(Blackhole blackhole) {
+        blackhole.consume(BlockingStackTraces.capture(5).toStackTrace());
+    }
+
+    @Benchmark
+    public void measureSameCallSite(DeduplicatorState state) {
+        state.deduplicator.accept(METHOD);
+    }
+
+    @Benchmark
+    public void measureFewCallSites(DeduplicatorState state) {
+        // Every line is a different call site
+        switch ((int) (Thread.currentThread().getId() & 3)) {
+            case 0:
+                state.deduplicator.accept(METHOD);
+                break;
+            case 1:
+                state.deduplicator.accept(METHOD);
+                break;
+            case 2:
+                state.deduplicator.accept(METHOD);
+                break;
+            default:
+                state.deduplicator.accept(METHOD);
+                break;
+        }
+    }
+}
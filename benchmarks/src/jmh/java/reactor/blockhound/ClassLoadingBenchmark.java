@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.blockhound;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Measures the class loading throughput, with and without BlockHound, since its transformers stay registered
+ * and are invoked for every loaded class. Every invocation defines the classes of the JMH jar
+ * (that are neither blocking nor allowing) in a new class loader.
+ */
+@SuppressWarnings("WeakerAccess")
+@Fork(value = 1, jvmArgsAppend = "-XX:+AllowRedefinitionToAddDeleteMethods")
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ClassLoadingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean installed;
+
+    Map<String, byte[]> classes;
+
+    @Setup
+    public void prepare() throws Exception {
+        if (installed) {
+            BlockHound.builder()
+                    .blockingMethodCallback(m -> {}) // Do not throw
+                    .install();
+        }
+
+        classes = readClasses(new File(Benchmark.class.getProtectionDomain().getCodeSource().getLocation().toURI()));
+    }
+
+    @Benchmark
+    public int measureClassLoading() {
+        ClassLoader classLoader = new BytesClassLoader(classes);
+        int loaded = 0;
+        for (String name : classes.keySet()) {
+            try {
+                classLoader.loadClass(name);
+                loaded++;
+            }
+            catch (ClassNotFoundException | LinkageError e) {
+                // The dependencies of the jar are not available
+            }
+        }
+        return loaded;
+    }
+
+    static Map<String, byte[]> readClasses(File file) throws IOException {
+        Map<String, byte[]> result = new HashMap<>();
+        try (JarFile jarFile = new JarFile(file)) {
+            for (JarEntry entry : Collections.list(jarFile.entries())) {
+                String name = entry.getName();
+                if (!name.endsWith(".class") || name.contains("-")) {
+                    continue;
+                }
+
+                try (InputStream inputStream = jarFile.getInputStream(entry)) {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[8192];
+                    for (int read; (read = inputStream.read(buffer)) != -1; ) {
+                        bytes.write(buffer, 0, read);
+                    }
+                    result.put(name.substring(0, name.length() - ".class".length()).replace('/', '.'), bytes.toByteArray());
+                }
+            }
+        }
+        return result;
+    }
+
+    static final class BytesClassLoader extends ClassLoader {
+
+        final Map<String, byte[]> classes;
+
+        BytesClassLoader(Map<String, byte[]> classes) {
+            super(null);
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.blockhound;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the installation in a fresh JVM, since it can only happen once per JVM (the following installations
+ * are no-ops). Every fork installs BlockHound once, and reports the duration of every
+ * {@link BlockHound.InstallationPhase} (in microseconds) as a secondary result.
+ * <p>
+ * Run it alone with {@code ./gradlew :benchmarks:jmh -PjmhIncludes=InstallationBenchmark}.
+ */
+@SuppressWarnings("WeakerAccess")
+@Fork(value = 20, jvmArgsAppend = "-XX:+AllowRedefinitionToAddDeleteMethods")
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@BenchmarkMode({Mode.SingleShotTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class InstallationBenchmark {
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class PhaseTimings {
+
+        public long attachMicros;
+
+        public long bootstrapInjectionMicros;
+
+        public long discoveryMicros;
+
+        public long instrumentationMicros;
+
+        public long verificationMicros;
+
+        public long activationMicros;
+
+        void record(Map<BlockHound.InstallationPhase, Duration> timings) {
+            attachMicros = micros(timings, BlockHound.InstallationPhase.ATTACH);
+            bootstrapInjectionMicros = micros(timings, BlockHound.InstallationPhase.BOOTSTRAP_INJECTION);
+            discoveryMicros = micros(timings, BlockHound.InstallationPhase.DISCOVERY);
+            instrumentationMicros = micros(timings, BlockHound.InstallationPhase.INSTRUMENTATION);
+            verificationMicros = micros(timings, BlockHound.InstallationPhase.VERIFICATION);
+            activationMicros = micros(timings, BlockHound.InstallationPhase.ACTIVATION);
+        }
+
+        static long micros(Map<BlockHound.InstallationPhase, Duration> timings, BlockHound.InstallationPhase phase) {
+            Duration duration = timings.get(phase);
+            return duration != null ? TimeUnit.NANOSECONDS.toMicros(duration.toNanos()) : 0;
+        }
+    }
+
+    @Benchmark
+    public void measureInstallation(PhaseTimings timings) {
+        BlockHound.builder()
+                .blockingMethodCallback(m -> {}) // Do not throw
+                .install();
+        timings.record(BlockHound.getInstallationTimings());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a spin loop of {@link Thread#onSpinWait()} on a thread that is not checked by BlockHound,
+ * when {@code Thread.onSpinWait()} is instrumented (the default) and when the spin-waits are only detected
+ * at their call sites in other packages, see {@link BlockHound.Builder#detectSpinWaitsAtCallSites(String...)}.
+ * The latter should be on par with the baseline, since {@code Thread.onSpinWait()} keeps its intrinsic.
+ */
+@SuppressWarnings("WeakerAccess")
+@Fork(value = 1, jvmArgsAppend = "-XX:+AllowRedefinitionToAddDeleteMethods")
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpinWaitBenchmark {
+
+    static final int SPINS = 100;
+
+    static void spin() {
+        for (int i = 0; i < SPINS; i++) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class InstrumentedState {
+
+        @Setup
+        public void prepare() {
+            BlockHound.builder()
+                    .blockingMethodCallback(m -> {}) // Do not throw
+                    .install();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class CallSitesState {
+
+        @Setup
+        public void prepare() {
+            BlockHound.builder()
+                    .detectSpinWaitsAtCallSites("com.example")
+                    .blockingMethodCallback(m -> {}) // Do not throw
+                    .install();
+        }
+    }
+
+    @Benchmark
+    public void baselineSpinLoop() {
+        spin();
+    }
+
+    @Benchmark
+    public void measureSpinLoopWithInstrumentedOnSpinWait(InstrumentedState state) {
+        spin();
+    }
+
+    @Benchmark
+    public void measureSpinLoopWithCallSiteDetection(CallSitesState state) {
+        spin();
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.core.scheduler.NonBlocking;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AgentConfigurationTest {
+
+    @Test
+    public void shouldConfigureTheAgentWithAFile() throws Exception {
+        Path config = Files.createTempFile("blockhound", ".properties");
+        try {
+            Files.write(config, Arrays.asList(
+                    "# Only the Reactor integration, without probing the others",
+                    "integrations = reactor",
+                    "blocking = " + Blocking.class.getName() + "#block(Ljava/lang/String;)V",
+                    "allow = " + Child.class.getName() + "#allowed \\",
+                    "        " + Child.class.getName() + "#alsoAllowed",
+                    "nonBlockingThreadNamePrefixes = worker-"
+            ), StandardCharsets.UTF_8);
+
+            // The agent arguments override the file
+            List<String> output = run(
+                    "-javaagent:" + agentJar() + "=config=" + config + ",allow=" + Child.class.getName() + "#allowed",
+                    "-cp", System.getProperty("java.class.path"),
+                    Child.class.getName()
+            );
+            assertThat(output).containsExactly(
+                    "standard-output integration: false",
+                    "worker-1 allowed: true",
+                    "worker-1 alsoAllowed: false",
+                    "worker-1 block: false",
+                    "reactor allowed: true",
+                    "reactor sleep: false"
+            );
+        }
+        finally {
+            Files.delete(config);
+        }
+    }
+
+    @Test
+    public void shouldIgnoreTheUnknownArgumentsUnlessStrict() throws Exception {
+        String options = "integrations=reactor,unknown=value";
+        assertThat(run(
+                "-javaagent:" + agentJar() + "=" + options,
+                "-cp", System.getProperty("java.class.path"),
+                Child.class.getName()
+        )).contains("reactor sleep: false");
+
+        Process process = start(
+                "-javaagent:" + agentJar() + "=" + options + ",strict=true",
+                "-cp", System.getProperty("java.class.path"),
+                Child.class.getName()
+        );
+        assertThat(process.waitFor(1, TimeUnit.MINUTES)).isTrue();
+        assertThat(process.exitValue()).isNotZero();
+    }
+
+    private static List<String> run(String... args) throws Exception {
+        Process process = start(args);
+
+        List<String> output;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            output = reader.lines().collect(Collectors.toList());
+        }
+        assertThat(process.waitFor(1, TimeUnit.MINUTES)).isTrue();
+        assertThat(process.exitValue()).isZero();
+        return output;
+    }
+
+    private static Process start(String... args) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.addAll(Arrays.asList(args));
+        return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+    }
+
+    private static String agentJar() throws Exception {
+        return new File(BlockHound.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+
+    public static class Child {
+
+        public static void main(String[] args) throws Exception {
+            System.out.println("standard-output integration: " + (System.out.getClass() != PrintStream.class));
+
+            Thread worker = new Thread(() -> {}, "worker-1");
+            print(worker, "allowed", Child::allowed);
+            print(worker, "alsoAllowed", Child::alsoAllowed);
+            print(worker, "block", () -> Blocking.block("value"));
+            print(new NonBlockingThread(), "allowed", Child::allowed);
+            print(new NonBlockingThread(), "sleep", () -> Thread.sleep(1));
+        }
+
+        static void print(Thread template, String name, Call call) throws InterruptedException {
+            boolean[] allowed = {false};
+            Thread thread = new Thread(() -> {
+                try {
+                    call.run();
+                    allowed[0] = true;
+                }
+                catch (Throwable e) {
+                    // The BlockingOperationError
+                }
+            }, template.getName());
+            if (template instanceof NonBlockingThread) {
+                thread = new NonBlockingThread(thread);
+            }
+            thread.start();
+            thread.join(5_000);
+            System.out.println((template instanceof NonBlockingThread ? "reactor" : template.getName()) + " " + name + ": " + allowed[0]);
+        }
+
+        static void allowed() throws InterruptedException {
+            Thread.sleep(1);
+        }
+
+        static void alsoAllowed() throws InterruptedException {
+            Thread.sleep(1);
+        }
+
+    }
+
+    static class Blocking {
+
+        static void block(String value) {
+        }
+    }
+
+    interface Call {
+
+        void run() throws Exception;
+    }
+
+    static class NonBlockingThread extends Thread implements NonBlocking {
+
+        NonBlockingThread() {
+        }
+
+        NonBlockingThread(Runnable target) {
+            super(target);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example;
+
+import org.junit.Before;
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class AllowBlockingTest {
+
+    static final List<BlockingMethod> detected = new CopyOnWriteArrayList<>();
+
+    static {
+        BlockHound.install(b -> b
+                .disallowBlockingCallsInside(AllowBlockingTest.class.getName(), "disallowedSleep")
+                .nonBlockingThreadPredicate(p -> p.or(NonBlockingThread.class::isInstance))
+                .blockingMethodCallback(detected::add)
+        );
+    }
+
+    @Before
+    public void clear() {
+        detected.clear();
+    }
+
+    @Test
+    public void shouldAllowBlockingCalls() throws Exception {
+        String result = run(() -> BlockHound.allowBlocking(() -> {
+            sleep();
+            return "done";
+        }));
+
+        assertThat(result).isEqualTo("done");
+        assertThat(detected).isEmpty();
+    }
+
+    @Test
+    public void shouldReportAfterTheAllowance() throws Exception {
+        run(() -> {
+            BlockHound.allowBlocking(AllowBlockingTest::sleep);
+            sleep();
+            return null;
+        });
+
+        assertThat(detected).hasSize(1);
+    }
+
+    @Test
+    public void shouldStillReportDisallowedMethods() throws Exception {
+        run(() -> {
+            BlockHound.allowBlocking(AllowBlockingTest::disallowedSleep);
+            return null;
+        });
+
+        assertThat(detected).hasSize(1);
+    }
+
+    @Test
+    public void shouldAllowBlockingCallsOfForks() throws Exception {
+        // Only the forks are non-blocking, since the scope blocks to join them
+        BlockHound.allowBlocking(() -> forkAndJoin(() -> {
+            sleep();
+            return null;
+        }));
+
+        assertThat(detected).isEmpty();
+    }
+
+    @Test
+    public void shouldReportForksOutsideOfAllowance() throws Exception {
+        forkAndJoin(() -> {
+            sleep();
+            return null;
+        });
+
+        assertThat(detected).hasSize(1);
+    }
+
+    static void disallowedSleep() {
+        sleep();
+    }
+
+    static void sleep() {
+        try {
+            Thread.sleep(1);
+        }
+        catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static <T> T run(Callable<T> callable) throws Exception {
+        Object[] result = new Object[1];
+        Thread thread = new NonBlockingThread(() -> {
+            try {
+                result[0] = callable.call();
+            }
+            catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+        thread.join(5_000);
+        @SuppressWarnings("unchecked")
+        T value = (T) result[0];
+        return value;
+    }
+
+    /**
+     * Forks the callable in a {@code StructuredTaskScope} of non-blocking threads (JDK 21+, compiled with release 11).
+     */
+    private static Object forkAndJoin(Callable<?> callable) throws Exception {
+        Class<?> scopeClass;
+        try {
+            scopeClass = Class.forName("java.util.concurrent.StructuredTaskScope$ShutdownOnFailure");
+        }
+        catch (ClassNotFoundException e) {
+            assumeTrue("StructuredTaskScope requires JDK 21+", false);
+            return null;
+        }
+        Constructor<?> constructor = scopeClass.getConstructor(String.class, ThreadFactory.class);
+        AutoCloseable scope = (AutoCloseable) constructor.newInstance("test", (ThreadFactory) NonBlockingThread::new);
+        try {
+            Method fork = scopeClass.getMethod("fork", Callable.class);
+            Object subtask = fork.invoke(scope, callable);
+            scopeClass.getMethod("join").invoke(scope);
+            return subtask;
+        }
+        finally {
+            scope.close();
+        }
+    }
+
+    static class NonBlockingThread extends Thread {
+
+        NonBlockingThread(Runnable target) {
+            super(target);
+        }
+    }
+}
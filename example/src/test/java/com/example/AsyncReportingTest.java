@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.junit.Before;
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockHound.OverflowStrategy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AsyncReportingTest {
+
+    static final List<String> callbackThreads = new CopyOnWriteArrayList<>();
+
+    static volatile CountDownLatch callbackGate = new CountDownLatch(0);
+
+    static {
+        BlockHound.install(b -> b
+                .asyncReporting(16, OverflowStrategy.DROP_AND_COUNT)
+                .nonBlockingThreadPredicate(p -> p.or(NonBlockingThread.class::isInstance))
+                .blockingMethodCallback(method -> {
+                    callbackThreads.add(Thread.currentThread().getName());
+                    try {
+                        callbackGate.await(10, TimeUnit.SECONDS);
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IllegalStateException("Ignored");
+                })
+        );
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        // Wait for the reports of the previous test
+        int size;
+        do {
+            size = callbackThreads.size();
+            Thread.sleep(100);
+        }
+        while (callbackThreads.size() != size);
+        callbackThreads.clear();
+    }
+
+    @Test
+    public void shouldReportOnTheReporterThread() throws Exception {
+        runBlockingCalls(10);
+
+        waitUntil(() -> callbackThreads.size() == 10);
+        assertThat(callbackThreads).containsOnly("blockhound-reporter");
+    }
+
+    @Test
+    public void shouldDropWhenFull() throws Exception {
+        long droppedBefore = BlockHound.getDroppedBlockingCallCount();
+        callbackGate = new CountDownLatch(1);
+        try {
+            runBlockingCalls(100);
+        }
+        finally {
+            callbackGate.countDown();
+        }
+
+        waitUntil(() -> {
+            long dropped = BlockHound.getDroppedBlockingCallCount() - droppedBefore;
+            return callbackThreads.size() + dropped == 100;
+        });
+        // At most one call is being reported while 16 are waiting in the buffer
+        assertThat(callbackThreads).hasSizeBetween(16, 17);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("timeout").isNegative();
+            Thread.sleep(10);
+        }
+    }
+
+    private static void runBlockingCalls(int count) throws InterruptedException {
+        Thread thread = new NonBlockingThread(() -> {
+            for (int i = 0; i < count; i++) {
+                Thread.yield();
+            }
+        });
+        thread.start();
+        thread.join(5_000);
+    }
+
+    static class NonBlockingThread extends Thread {
+
+        NonBlockingThread(Runnable target) {
+            super(target);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.core.scheduler.NonBlocking;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AttachTest {
+
+    @Test
+    public void shouldAttachToRunningJvm() throws Exception {
+        Process target = start(Target.class.getName());
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(target.getInputStream(), StandardCharsets.UTF_8));
+            assertThat(reader.readLine()).isEqualTo(Target.READY);
+
+            String report = attach(target);
+            assertThat(report)
+                    .contains("\"mode\": \"count\"")
+                    .containsPattern("\"java\\.lang\\.Thread\\.sleep\": [1-9]")
+                    .containsPattern("\"non-blocking-#\": [1-9]");
+
+            // Not throwing nor instrumented after the session
+            assertThat(target.isAlive()).isTrue();
+        }
+        finally {
+            target.destroy();
+        }
+    }
+
+    @Test
+    public void shouldOnlyCountTheCallsOfTheSession() throws Exception {
+        Process target = start(Target.class.getName());
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(target.getInputStream(), StandardCharsets.UTF_8));
+            assertThat(reader.readLine()).isEqualTo(Target.READY);
+
+            attach(target);
+            // The counters of the MBean are kept across the sessions
+            String report = attach(target);
+
+            long reported = count(report, "reportedCount");
+            assertThat(reported).isPositive().isLessThanOrEqualTo(count(report, "checkedCount"));
+            assertThat(count(report, "java.lang.Thread.sleep")).isEqualTo(reported);
+            assertThat(count(report, "non-blocking-#")).isEqualTo(reported);
+        }
+        finally {
+            target.destroy();
+        }
+    }
+
+    private static String attach(Process target) throws Exception {
+        Path out = Files.createTempFile("blockhound", ".json");
+        try {
+            Process launcher = start(
+                    "-jar", agentJar(),
+                    "attach", Long.toString(target.pid()),
+                    "--duration", "1s",
+                    "--out", out.toString()
+            );
+            assertThat(launcher.waitFor(1, TimeUnit.MINUTES)).isTrue();
+            assertThat(launcher.exitValue()).isZero();
+
+            return new String(Files.readAllBytes(out), StandardCharsets.UTF_8);
+        }
+        finally {
+            Files.deleteIfExists(out);
+        }
+    }
+
+    private static long count(String report, String name) {
+        Matcher matcher = Pattern.compile("\"" + Pattern.quote(name) + "\": (\\d+)").matcher(report);
+        assertThat(matcher.find()).as("%s in %s", name, report).isTrue();
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static Process start(String... args) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.addAll(List.of(args));
+        return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+    }
+
+    private static String agentJar() throws Exception {
+        return new File(BlockHound.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+
+    public static class Target {
+
+        static final String READY = "ready";
+
+        public static void main(String[] args) throws Exception {
+            Thread thread = new NonBlockingThread(() -> {
+                while (true) {
+                    try {
+                        Thread.sleep(10);
+                    }
+                    catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+
+            System.out.println(READY);
+            // Until destroyed
+            Thread.sleep(Long.MAX_VALUE);
+        }
+    }
+
+    static class NonBlockingThread extends Thread implements NonBlocking {
+
+        NonBlockingThread(Runnable target) {
+            super(target, "non-blocking-1");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingCallDurations;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BlockingCallDurationHistogramTest {
+
+    static {
+        BlockHound.install(b -> b
+                .recordBlockingCallDurations(3)
+                .measureBlockingCallDuration(Duration.ofMinutes(1))
+                .nonBlockingThreadPredicate(p -> p.or(NonBlockingThread.class::isInstance))
+        );
+    }
+
+    @Test
+    public void shouldRecordDurationsPerMethodAndCallSite() throws Exception {
+        Thread thread = new NonBlockingThread(() -> {
+            for (int i = 0; i < 100; i++) {
+                Thread.yield();
+            }
+
+            try {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+        thread.join(5_000);
+
+        List<BlockingCallDurations> methods = BlockHound.getBlockingMethodDurations();
+        assertThat(methods)
+                .filteredOn(it -> it.getMethod().getName().startsWith("yield"))
+                .singleElement()
+                .satisfies(it -> assertThat(it.getCount()).isEqualTo(100));
+
+        assertThat(methods)
+                .filteredOn(it -> it.getMethod().getName().startsWith("sleep"))
+                .singleElement()
+                .satisfies(it -> {
+                    assertThat(it.getCount()).isEqualTo(1);
+                    assertThat(it.getMaxNanos()).isGreaterThanOrEqualTo(Duration.ofMillis(50).toNanos());
+                    // The precision of the histogram is about 3%
+                    assertThat(it.getNanosAtPercentile(50)).isGreaterThanOrEqualTo(Duration.ofMillis(48).toNanos());
+                });
+
+        assertThat(BlockHound.getBlockingCallSiteDurations())
+                .hasSize(2)
+                .allSatisfy(it -> assertThat(it.getStackTrace()).hasSize(3));
+
+        BlockHound.resetBlockingCallDurations();
+
+        assertThat(BlockHound.getBlockingMethodDurations()).isEmpty();
+        assertThat(BlockHound.getBlockingCallSiteDurations()).isEmpty();
+    }
+
+    static class NonBlockingThread extends Thread {
+
+        NonBlockingThread(Runnable target) {
+            super(target);
+        }
+    }
+}
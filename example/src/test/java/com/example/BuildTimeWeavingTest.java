@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.core.scheduler.NonBlocking;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BuildTimeWeavingTest {
+
+    @Test
+    public void shouldApplyTheWovenAllowances() throws Exception {
+        Path classes = Files.createTempDirectory("blockhound-classes");
+        Path out = Files.createTempDirectory("blockhound-woven");
+
+        String classFile = Woven.class.getName().replace('.', '/') + ".class";
+        Path original = classes.resolve(classFile);
+        Files.createDirectories(original.getParent());
+        try (InputStream inputStream = Woven.class.getClassLoader().getResourceAsStream(classFile)) {
+            Files.copy(inputStream, original);
+        }
+
+        assertThat(run(
+                "-cp", agentJar(),
+                "reactor.blockhound.BuildTimeWeaver",
+                "--classes", classes.toString(),
+                "--out", out.toString(),
+                "--classpath", System.getProperty("java.class.path"),
+                "--allow", Woven.class.getName() + "#allowed"
+        )).containsExactly("Woven 1 classes into " + out);
+
+        // The allowance is not passed to the agent, it only comes from the woven class
+        List<String> output = run(
+                "-javaagent:" + agentJar(),
+                "-cp", out + File.pathSeparator + System.getProperty("java.class.path"),
+                Woven.class.getName()
+        );
+        assertThat(output).containsExactly("allowed: true", "disallowed: false");
+    }
+
+    private static List<String> run(String... args) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+
+        List<String> output;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            output = reader.lines().collect(Collectors.toList());
+        }
+        assertThat(process.waitFor(1, TimeUnit.MINUTES)).isTrue();
+        assertThat(process.exitValue()).isZero();
+        return output;
+    }
+
+    private static String agentJar() throws Exception {
+        return new File(BlockHound.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+
+    public static class Woven {
+
+        public static void main(String[] args) throws Exception {
+            for (String methodName : new String[]{"allowed", "disallowed"}) {
+                boolean[] allowed = {false};
+                Thread thread = new NonBlockingThread(() -> {
+                    try {
+                        Woven.class.getDeclaredMethod(methodName).invoke(null);
+                        allowed[0] = true;
+                    }
+                    catch (Exception e) {
+                        // The BlockingOperationError is wrapped in an InvocationTargetException
+                    }
+                });
+                thread.start();
+                thread.join(5_000);
+                System.out.println(methodName + ": " + allowed[0]);
+            }
+        }
+
+        static void allowed() throws InterruptedException {
+            Thread.sleep(1);
+        }
+
+        static void disallowed() throws InterruptedException {
+            Thread.sleep(1);
+        }
+    }
+
+    static class NonBlockingThread extends Thread implements NonBlocking {
+
+        NonBlockingThread(Runnable target) {
+            super(target);
+        }
+    }
+}
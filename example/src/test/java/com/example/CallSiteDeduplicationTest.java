@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingCallSite;
+import reactor.blockhound.BlockingMethod;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CallSiteDeduplicationTest {
+
+    static final List<BlockingMethod> detected = new CopyOnWriteArrayList<>();
+
+    static final List<BlockingCallSite> summaries = new CopyOnWriteArrayList<>();
+
+    static {
+        BlockHound.install(b -> b
+                .deduplicateCallSites(3, Duration.ZERO, summaries::addAll)
+                .nonBlockingThreadPredicate(p -> p.or(NonBlockingThread.class::isInstance))
+                .blockingMethodCallback(detected::add)
+        );
+    }
+
+    @Test
+    public void shouldReportEveryCallSiteOnce() throws Exception {
+        Thread thread = new NonBlockingThread(() -> {
+            for (int i = 0; i < 100; i++) {
+                Thread.yield();
+            }
+            Thread.yield();
+        });
+        thread.start();
+        thread.join(5_000);
+
+        assertThat(detected).hasSize(2);
+
+        assertThat(summaries)
+                .allSatisfy(it -> assertThat(it.getStackTrace()).hasSize(3))
+                .extracting(BlockingCallSite::getCount)
+                .contains(100L, 1L);
+
+        assertThat(summaries.stream().mapToLong(BlockingCallSite::getCountSinceLastSummary).sum())
+                .isEqualTo(101L);
+    }
+
+    static class NonBlockingThread extends Thread {
+
+        NonBlockingThread(Runnable target) {
+            super(target);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.junit.Before;
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CallSiteEngineTest {
+
+    static final List<BlockingMethod> detected = new CopyOnWriteArrayList<>();
+
+    static {
+        BlockHound.install(b -> b
+                .instrumentCallSites("com.example")
+                .markAsBlocking(Blocking.class, "block", "()V")
+                .allowBlockingCallsInside(CallSiteEngineTest.class.getName(), "allowed")
+                .nonBlockingThreadPredicate(p -> p.or(NonBlockingThread.class::isInstance))
+                .blockingMethodCallback(detected::add)
+        );
+    }
+
+    @Before
+    public void clear() {
+        detected.clear();
+    }
+
+    @Test
+    public void shouldDetectBlockingCallsAtCallSites() throws Exception {
+        run(() -> {
+            sleep();
+            LockSupport.parkNanos(1);
+            Blocking.block();
+        });
+
+        assertThat(detected).extracting(Object::toString).containsExactly(
+                "java.lang.Thread.sleep",
+                "java.util.concurrent.locks.LockSupport.parkNanos",
+                "com.example.CallSiteEngineTest$Blocking.block"
+        );
+    }
+
+    @Test
+    public void shouldDetectTheInheritedBlockingMethods() throws Exception {
+        run(() -> {
+            try {
+                NonBlockingThread.sleep(1);
+            }
+            catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        assertThat(detected).extracting(Object::toString).containsExactly("java.lang.Thread.sleep");
+    }
+
+    @Test
+    public void shouldApplyTheAllowances() throws Exception {
+        run(CallSiteEngineTest::allowed);
+
+        assertThat(detected).isEmpty();
+    }
+
+    @Test
+    public void shouldOnlyCheckTheSelectedPackages() throws Exception {
+        // Called from the reflection, not from a class of the selected packages
+        run(() -> {
+            try {
+                Thread.class.getMethod("sleep", long.class).invoke(null, 1L);
+            }
+            catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        assertThat(detected).isEmpty();
+    }
+
+    @Test
+    public void shouldLeaveTheBlockingJdkClassesUntouched() throws Exception {
+        // Only the blocking classes: the JDK classes with allowances (e.g. ClassLoader) are still retransformed
+        assertThat(Thread.class.getDeclaredMethods())
+                .noneMatch(it -> it.getName().startsWith("$$BlockHound$$_"));
+
+        // Without -XX:+AllowRedefinitionToAddDeleteMethods
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                         .filter(it -> !it.contains("AllowRedefinitionToAddDeleteMethods"))
+                         .forEach(command::add);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Child.class.getName());
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+
+        List<String> output;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            output = reader.lines().collect(Collectors.toList());
+        }
+        assertThat(process.waitFor(1, TimeUnit.MINUTES)).isTrue();
+        assertThat(process.exitValue()).isZero();
+        assertThat(output).containsExactly("java.lang.Thread.sleep");
+    }
+
+    static void allowed() {
+        sleep();
+    }
+
+    static void sleep() {
+        try {
+            Thread.sleep(1);
+        }
+        catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void run(Runnable runnable) throws InterruptedException {
+        Thread thread = new NonBlockingThread(runnable);
+        thread.start();
+        thread.join(5_000);
+    }
+
+    public static class Child {
+
+        public static void main(String[] args) throws Exception {
+            BlockHound.install(b -> b
+                    .instrumentCallSites("com.example")
+                    .nonBlockingThreadPredicate(p -> p.or(NonBlockingThread.class::isInstance))
+                    .blockingMethodCallback(System.out::println)
+            );
+            run(CallSiteEngineTest::sleep);
+            Stream.of(Thread.class.getDeclaredMethods())
+                  .filter(it -> it.getName().startsWith("$$BlockHound$$_"))
+                  .forEach(System.out::println);
+        }
+    }
+
+    static class Blocking {
+
+        static void block() {
+        }
+    }
+
+    static class NonBlockingThread extends Thread {
+
+        NonBlockingThread(Runnable target) {
+            super(target);
+        }
+    }
+}
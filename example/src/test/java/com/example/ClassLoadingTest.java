@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The classes that are loaded after the installation go through the fast rejection of the transformer,
+ * which must let the blocking and (dis-)allowing ones through.
+ */
+public class ClassLoadingTest {
+
+    static {
+        // Not loading the classes, so that they are transformed when first loaded
+        BlockHound.install(b -> b
+                .markAsBlocking(LateBlocking.class.getName(), "block", "()V")
+                .allowBlockingCallsInside(LateAllowing.class.getName(), "allowed")
+        );
+    }
+
+    @Test
+    public void shouldReportTheBlockingMethodsOfTheClassesLoadedAfterTheInstallation() {
+        assertThat(catchBlockingCall(LateBlocking::block))
+                .isNotNull()
+                .returns(LateBlocking.class.getName(), BlockingMethod::getClassName)
+                .returns("block", BlockingMethod::getName);
+    }
+
+    @Test
+    public void shouldApplyTheAllowancesOfTheClassesLoadedAfterTheInstallation() {
+        assertThat(catchBlockingCall(LateAllowing::allowed)).isNull();
+        assertThat(catchBlockingCall(LateAllowing::disallowed))
+                .isNotNull()
+                .returns("sleep", BlockingMethod::getName);
+    }
+
+    @Test
+    public void shouldReportTheBlockingMethodsMarkedByAReconfiguration() {
+        BlockHound.reconfigure(b -> b.markAsBlocking(LateReconfigured.class.getName(), "block", "()V"));
+
+        assertThat(catchBlockingCall(LateReconfigured::block))
+                .isNotNull()
+                .returns(LateReconfigured.class.getName(), BlockingMethod::getClassName);
+    }
+
+    private static BlockingMethod catchBlockingCall(Runnable runnable) {
+        Throwable e = Assertions.catchThrowable(() -> {
+            Mono.fromRunnable(runnable).hide().subscribeOn(Schedulers.parallel()).block(Duration.ofSeconds(5));
+        });
+        if (e == null) {
+            return null;
+        }
+        assertThat(e).hasCauseInstanceOf(BlockingOperationError.class);
+        return ((BlockingOperationError) e.getCause()).getMethod();
+    }
+
+    static class LateBlocking {
+
+        static void block() {
+        }
+    }
+
+    static class LateAllowing {
+
+        static void allowed() {
+            disallowed();
+        }
+
+        static void disallowed() {
+            try {
+                Thread.sleep(1);
+            }
+            catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    static class LateReconfigured {
+
+        static void block() {
+        }
+    }
+}
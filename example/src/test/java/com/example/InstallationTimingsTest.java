@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockHound.InstallationPhase;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InstallationTimingsTest {
+
+    static {
+        BlockHound.install();
+    }
+
+    @Test
+    public void shouldMeasureEveryPhase() {
+        assertThat(BlockHound.getInstallationTimings())
+                .containsOnlyKeys(InstallationPhase.values())
+                .allSatisfy((phase, duration) -> assertThat(duration).isGreaterThanOrEqualTo(Duration.ZERO));
+    }
+}
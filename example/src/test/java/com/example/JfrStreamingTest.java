@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class JfrStreamingTest {
+
+    static final List<BlockingMethod> detected = new CopyOnWriteArrayList<>();
+
+    @BeforeClass
+    public static void setUp() {
+        assumeTrue("JFR event streaming requires JDK 14+", Runtime.version().feature() >= 14);
+
+        BlockHound.install(b -> b
+                .jfrStreaming(Duration.ofMillis(20))
+                .allowBlockingCallsInside(JfrStreamingTest.class.getName(), "awaitDetection")
+                .nonBlockingThreadPredicate(p -> p.or(NonBlockingThread.class::isInstance))
+                .blockingMethodCallback(detected::add)
+        );
+    }
+
+    @Test
+    public void shouldDetectLongBlockingCallsFromEvents() throws Exception {
+        Thread thread = new NonBlockingThread(() -> {
+            try {
+                Thread.sleep(1);
+                Thread.sleep(100);
+                awaitDetection();
+            }
+            catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+        thread.join(15_000);
+
+        assertThat(detected).singleElement().satisfies(it -> {
+            assertThat(it.getClassName()).isEqualTo("java.lang.Thread");
+            assertThat(it.getDurationNanos()).isGreaterThanOrEqualTo(Duration.ofMillis(100).toNanos());
+        });
+    }
+
+    /**
+     * Keeps the thread alive until the event is received, since the events of the terminated threads are ignored.
+     */
+    static void awaitDetection() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (detected.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    static class NonBlockingThread extends Thread {
+
+        NonBlockingThread(Runnable target) {
+            super(target);
+        }
+    }
+}
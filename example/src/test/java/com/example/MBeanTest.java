@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockHoundMXBean;
+import reactor.blockhound.BlockingMethod;
+
+import javax.management.JMX;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MBeanTest {
+
+    static final List<BlockingMethod> detected = new CopyOnWriteArrayList<>();
+
+    static {
+        BlockHound.install(b -> b
+                .registerMBean(true)
+                .allowBlockingCallsInside(MBeanTest.class.getName(), "allowedBlockingCall")
+                .nonBlockingThreadPredicate(p -> p.or(NonBlockingThread.class::isInstance))
+                .blockingMethodCallback(detected::add)
+        );
+    }
+
+    @Test
+    public void shouldExposeCountersAndControls() throws Exception {
+        BlockHoundMXBean mbean = JMX.newMXBeanProxy(
+                ManagementFactory.getPlatformMBeanServer(),
+                new ObjectName(BlockHoundMXBean.OBJECT_NAME),
+                BlockHoundMXBean.class
+        );
+        assertThat(mbean.getReportingMode()).isEqualTo(BlockHound.ReportingMode.CALLBACK);
+
+        runBlockingCalls(10);
+
+        assertThat(detected).hasSize(10);
+        assertThat(mbean.getReportedCount()).isEqualTo(10);
+        assertThat(mbean.getAllowedCount()).isGreaterThanOrEqualTo(1);
+        assertThat(mbean.getCheckedCount()).isGreaterThanOrEqualTo(11);
+        assertThat(mbean.getReportedCountPerMethod()).containsValue(10L).hasSize(1);
+        assertThat(mbean.getReportedCountPerThread()).containsEntry("non-blocking-#", 10L);
+
+        mbean.setReportingMode(BlockHound.ReportingMode.COUNT);
+        detected.clear();
+
+        runBlockingCalls(10);
+
+        assertThat(detected).isEmpty();
+        assertThat(mbean.getReportedCount()).isEqualTo(20);
+    }
+
+    private static void runBlockingCalls(int count) throws InterruptedException {
+        Thread thread = new NonBlockingThread(() -> {
+            for (int i = 0; i < count; i++) {
+                Thread.yield();
+            }
+            allowedBlockingCall();
+        });
+        thread.start();
+        thread.join(5_000);
+    }
+
+    static void allowedBlockingCall() {
+        Thread.yield();
+    }
+
+    static class NonBlockingThread extends Thread {
+
+        static int counter = 0;
+
+        NonBlockingThread(Runnable target) {
+            super(target, "non-blocking-" + counter++);
+        }
+    }
+}
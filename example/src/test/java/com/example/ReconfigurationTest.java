@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReconfigurationTest {
+
+    static final List<BlockingMethod> detected = new CopyOnWriteArrayList<>();
+
+    static {
+        BlockHound.install(b -> b
+                .nonBlockingThreadPredicate(p -> p.or(NonBlockingThread.class::isInstance))
+                .blockingMethodCallback(detected::add)
+        );
+    }
+
+    @Test
+    public void shouldApplyConfigurationAfterInstall() throws Exception {
+        run(new NonBlockingThread(Plugin::work));
+        run(new NonBlockingThread(PluginCallback::yieldSafely));
+        assertThat(detected).extracting(BlockingMethod::getName).containsExactly("yield");
+
+        detected.clear();
+        BlockHound.reconfigure(b -> b
+                .markAsBlocking(Plugin.class, "work", "()V")
+                .allowBlockingCallsInside(PluginCallback.class.getName(), "yieldSafely")
+                .nonBlockingThreadPredicate(p -> p.or(it -> it.getName().equals("plugin")))
+        );
+
+        run(new NonBlockingThread(Plugin::work));
+        run(new NonBlockingThread(PluginCallback::yieldSafely));
+        run(new Thread(Plugin::work, "plugin"));
+        assertThat(detected)
+                .extracting(BlockingMethod::toString)
+                .containsExactly(Plugin.class.getName() + ".work", Plugin.class.getName() + ".work");
+    }
+
+    @Test
+    public void shouldKeepTheAllowancesInProgress() throws Exception {
+        CountDownLatch allowed = new CountDownLatch(1);
+        CountDownLatch reconfigured = new CountDownLatch(1);
+        Thread thread = new NonBlockingThread(() -> BlockHound.allowBlocking(() -> {
+            allowed.countDown();
+            try {
+                reconfigured.await();
+            }
+            catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            Thread.yield();
+        }));
+        thread.start();
+        allowed.await();
+
+        // A new predicate makes the threads be classified again
+        BlockHound.reconfigure(b -> b.nonBlockingThreadPredicate(p -> p.or(it -> false)));
+        detected.clear();
+        reconfigured.countDown();
+        thread.join(5_000);
+
+        assertThat(detected).isEmpty();
+    }
+
+    private static void run(Thread thread) throws InterruptedException {
+        thread.start();
+        thread.join(5_000);
+    }
+
+    static class Plugin {
+
+        static void work() {
+        }
+    }
+
+    static class PluginCallback {
+
+        static void yieldSafely() {
+            Thread.yield();
+        }
+    }
+
+    static class NonBlockingThread extends Thread {
+
+        NonBlockingThread(Runnable target) {
+            super(target);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SamplingTest {
+
+    static final List<BlockingMethod> detected = new CopyOnWriteArrayList<>();
+
+    static {
+        BlockHound.install(b -> b
+                .samplingInterval(10)
+                .nonBlockingThreadPredicate(p -> p.or(NonBlockingThread.class::isInstance))
+                .blockingMethodCallback(detected::add)
+        );
+    }
+
+    @Test
+    public void shouldSampleBlockingCalls() throws Exception {
+        assertThat(BlockHound.getSamplingInterval()).isEqualTo(10);
+
+        runBlockingCalls(1_000);
+
+        assertThat(detected)
+                .hasSizeBetween(1, 500)
+                .allSatisfy(it -> assertThat(it.getSamplingInterval()).isEqualTo(10));
+
+        detected.clear();
+        BlockHound.setSamplingInterval(1);
+
+        runBlockingCalls(100);
+
+        assertThat(detected)
+                .hasSize(100)
+                .allSatisfy(it -> assertThat(it.getSamplingInterval()).isEqualTo(1));
+    }
+
+    private static void runBlockingCalls(int count) throws InterruptedException {
+        Thread thread = new NonBlockingThread(() -> {
+            for (int i = 0; i < count; i++) {
+                Thread.yield();
+            }
+        });
+        thread.start();
+        thread.join(5_000);
+    }
+
+    static class NonBlockingThread extends Thread {
+
+        NonBlockingThread(Runnable target) {
+            super(target);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.junit.Before;
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SpinWaitCallSiteTest {
+
+    static final List<BlockingMethod> detected = new CopyOnWriteArrayList<>();
+
+    static {
+        BlockHound.install(b -> b
+                .detectSpinWaitsAtCallSites("com.example")
+                .nonBlockingThreadPredicate(p -> p.or(NonBlockingThread.class::isInstance))
+                .blockingMethodCallback(detected::add)
+        );
+    }
+
+    @Before
+    public void clear() {
+        detected.clear();
+    }
+
+    @Test
+    public void shouldDetectSpinWaitsAtCallSites() throws Exception {
+        // Not a method reference, since it would be called by a hidden class
+        run(() -> Thread.onSpinWait());
+
+        assertThat(detected).hasSize(1).allSatisfy(it -> {
+            assertThat(it.getClassName()).isEqualTo("java.lang.Thread");
+            assertThat(it.getName()).isEqualTo("onSpinWait");
+            assertThat(it.isStatic()).isTrue();
+        });
+    }
+
+    @Test
+    public void shouldNotInstrumentOnSpinWait() throws Exception {
+        // Called from the reflection, not from a class of the selected packages
+        run(() -> {
+            try {
+                Thread.class.getMethod("onSpinWait").invoke(null);
+            }
+            catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        assertThat(detected).isEmpty();
+    }
+
+    @Test
+    public void shouldStillDetectTheOtherBlockingCalls() throws Exception {
+        run(Thread::yield);
+
+        assertThat(detected).hasSize(1).allSatisfy(it -> assertThat(it.getName()).isEqualTo("yield"));
+    }
+
+    private static void run(Runnable runnable) throws InterruptedException {
+        Thread thread = new NonBlockingThread(runnable);
+        thread.start();
+        thread.join(5_000);
+    }
+
+    static class NonBlockingThread extends Thread {
+
+        NonBlockingThread(Runnable target) {
+            super(target);
+        }
+    }
+}
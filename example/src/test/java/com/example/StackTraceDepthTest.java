@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.scheduler.NonBlocking;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class StackTraceDepthTest {
+
+    static {
+        BlockHound.install(b -> b.stackTraceDepth(2));
+    }
+
+    @Test
+    public void shouldOnlyKeepTopFrames() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        class TestThread extends Thread implements NonBlocking {
+            @Override
+            public void run() {
+                try {
+                    deep(10);
+                    future.complete(null);
+                }
+                catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+            void deep(int depth) throws InterruptedException {
+                if (depth == 0) {
+                    Thread.sleep(0);
+                }
+                else {
+                    deep(depth - 1);
+                }
+            }
+        }
+        new TestThread().start();
+
+        assertThat(Assertions.catchThrowable(future::join))
+                .as("exception")
+                .isNotNull()
+                .hasCauseInstanceOf(BlockingOperationError.class)
+                .satisfies(e -> {
+                    assertThat(e.getCause().getStackTrace())
+                            .as("Cause's stacktrace")
+                            .extracting(StackTraceElement::getClassName, StackTraceElement::getMethodName)
+                            .containsExactly(
+                                    tuple("java.lang.Thread", "sleep"),
+                                    tuple(TestThread.class.getName(), "deep")
+                            );
+                });
+    }
+}
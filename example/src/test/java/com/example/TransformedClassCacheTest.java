@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransformedClassCacheTest {
+
+    @Test
+    public void shouldServeCachedClassesOnNextStart() throws Exception {
+        Path directory = Files.createTempDirectory("blockhound-cache");
+        try {
+            assertThat(run(directory)).containsExactly("java.lang.Thread.yield", "java.lang.Thread.sleep");
+            Map<Path, FileTime> cached = listFiles(directory);
+            assertThat(cached).isNotEmpty();
+
+            Thread.sleep(50);
+
+
+            // The cached class files are neither transformed nor stored again
+            assertThat(run(directory)).containsExactly("java.lang.Thread.yield", "java.lang.Thread.sleep");
+            assertThat(listFiles(directory)).isEqualTo(cached);
+        }
+        finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void shouldNotServeCallSiteClasses() throws Exception {
+        Path directory = Files.createTempDirectory("blockhound-cache");
+        try {
+            String blocking = Blocking.class.getName() + ".block";
+            assertThat(run(directory, "callSites")).containsExactly(blocking);
+            // The call sites of the served classes would refer to unpublished blocking methods
+            assertThat(run(directory, "callSites")).containsExactly(blocking);
+        }
+        finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private static List<String> run(Path directory, String... args) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Child.class.getName());
+        command.add(directory.toString());
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+
+        List<String> output;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            output = reader.lines().collect(Collectors.toList());
+        }
+        assertThat(process.waitFor(1, TimeUnit.MINUTES)).isTrue();
+        assertThat(process.exitValue()).isZero();
+        return output;
+    }
+
+    private static Map<Path, FileTime> listFiles(Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toMap(Function.identity(), it -> {
+                try {
+                    return Files.getLastModifiedTime(it);
+                }
+                catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+    }
+
+    public static class Child {
+
+        public static void main(String[] args) throws Exception {
+            List<String> detected = new ArrayList<>();
+            boolean callSites = args.length > 1 && "callSites".equals(args[1]);
+            BlockHound.install(b -> {
+                b.cacheTransformedClasses(Paths.get(args[0]))
+                 .nonBlockingThreadPredicate(p -> p.or(NonBlockingThread.class::isInstance))
+                 .blockingMethodCallback(it -> detected.add(it.getClassName() + "." + it.getName()));
+                if (callSites) {
+                    b.instrumentCallSites("com.example")
+                     .markAsBlocking(Blocking.class.getName(), "block", "()V");
+                }
+            });
+
+            Thread thread = new NonBlockingThread(callSites ? Blocking::callBlock : () -> {
+                try {
+                    Thread.yield();
+                    Thread.sleep(1);
+                }
+                catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            thread.start();
+            thread.join(5_000);
+
+            detected.forEach(System.out::println);
+        }
+    }
+
+    static class Blocking {
+
+        static void callBlock() {
+            block();
+        }
+
+        static void block() {
+        }
+    }
+
+    static class NonBlockingThread extends Thread {
+
+        NonBlockingThread(Runnable target) {
+            super(target);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UninstallDurationTest {
+
+    static final List<BlockingMethod> detected = new CopyOnWriteArrayList<>();
+
+    static {
+        BlockHound.install(b -> b
+                .recordBlockingCallDurations(0)
+                .measureBlockingCallDuration(Duration.ofMinutes(1))
+                .nonBlockingThreadPredicate(p -> p.or(NonBlockingThread.class::isInstance))
+                .blockingMethodCallback(detected::add)
+        );
+    }
+
+    @Test
+    public void shouldNotKeepTheDurationSettingsOfThePreviousInstallation() throws Exception {
+        runBlockingCall();
+        assertThat(detected).isEmpty();
+        assertThat(BlockHound.getBlockingMethodDurations()).isNotEmpty();
+
+        BlockHound.uninstall();
+        assertThat(BlockHound.getBlockingMethodDurations()).isEmpty();
+
+        BlockHound.install(b -> b
+                .measureBlockingCallDuration(Duration.ZERO)
+                .nonBlockingThreadPredicate(p -> p.or(NonBlockingThread.class::isInstance))
+                .blockingMethodCallback(detected::add)
+        );
+
+        runBlockingCall();
+        assertThat(detected).hasSize(1);
+        assertThat(BlockHound.getBlockingMethodDurations()).isEmpty();
+    }
+
+    private static void runBlockingCall() throws InterruptedException {
+        Thread thread = new NonBlockingThread(() -> {
+            try {
+                Thread.sleep(1);
+            }
+            catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+        thread.join(5_000);
+    }
+
+    static class NonBlockingThread extends Thread {
+
+        NonBlockingThread(Runnable target) {
+            super(target);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class VirtualThreadTest {
+
+    static final List<BlockingMethod> detected = new CopyOnWriteArrayList<>();
+
+    static {
+        BlockHound.install(b -> b
+                .reportPinnedVirtualThreads(true)
+                .allowBlockingCallsInside(VirtualThreadTest.class.getName(), "allowedSleep")
+                .nonBlockingThreadPredicate(p -> p.or(NonBlockingThread.class::isInstance))
+                .blockingMethodCallback(detected::add)
+        );
+    }
+
+    // Compiled with release 11
+    static Method startVirtualThread;
+
+    @BeforeClass
+    public static void findVirtualThreads() {
+        try {
+            startVirtualThread = Thread.class.getMethod("startVirtualThread", Runnable.class);
+        }
+        catch (NoSuchMethodException e) {
+            assumeTrue("Virtual threads require JDK 21+", false);
+        }
+    }
+
+    @Before
+    public void clear() {
+        detected.clear();
+    }
+
+    @Test
+    public void shouldNotReportUnpinnedVirtualThreads() throws Exception {
+        runVirtual(() -> sleep(10));
+
+        assertThat(detected).isEmpty();
+    }
+
+    @Test
+    public void shouldReportPinnedVirtualThreads() throws Exception {
+        runVirtual(() -> {
+            synchronized (this) {
+                sleep(10);
+            }
+        });
+
+        assertThat(detected).hasSize(1).allSatisfy(it -> {
+            assertThat(it.getClassName()).isEqualTo("jdk.internal.misc.Unsafe");
+            assertThat(it.getName()).isEqualTo("park");
+        });
+    }
+
+    @Test
+    public void shouldReportObjectWaitOfVirtualThreads() throws Exception {
+        // Object.wait does not pin the virtual threads anymore on JDK 24+
+        assumeTrue(Runtime.version().feature() < 24);
+        Object lock = new Object();
+        runVirtual(() -> {
+            synchronized (lock) {
+                try {
+                    lock.wait(10);
+                }
+                catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+
+        assertThat(detected).hasSize(1).allSatisfy(it -> {
+            assertThat(it.getClassName()).isEqualTo("java.lang.Object");
+            assertThat(it.getName()).isEqualTo("wait");
+        });
+    }
+
+    @Test
+    public void shouldAllowPinnedVirtualThreads() throws Exception {
+        runVirtual(() -> {
+            synchronized (this) {
+                allowedSleep();
+            }
+        });
+
+        assertThat(detected).isEmpty();
+    }
+
+    @Test
+    public void shouldStillReportPlatformThreads() throws Exception {
+        Thread thread = new NonBlockingThread(() -> sleep(10));
+        thread.start();
+        thread.join(5_000);
+
+        assertThat(detected).hasSize(1);
+    }
+
+    static void allowedSleep() {
+        sleep(10);
+    }
+
+    static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void runVirtual(Runnable runnable) throws Exception {
+        Thread thread = (Thread) startVirtualThread.invoke(null, runnable);
+        thread.join(5_000);
+    }
+
+    static class NonBlockingThread extends Thread {
+
+        NonBlockingThread(Runnable target) {
+            super(target);
+        }
+    }
+}
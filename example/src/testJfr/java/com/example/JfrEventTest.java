@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+import reactor.blockhound.BlockHound;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JfrEventTest {
+
+    static {
+        BlockHound.install(b -> b
+                .emitJfrEvents(true)
+                .nonBlockingThreadPredicate(p -> p.or(NonBlockingThread.class::isInstance))
+                .blockingMethodCallback(it -> {})
+        );
+    }
+
+    @Test
+    public void shouldEmitEventForBlockingCalls() throws Exception {
+        Path file = Files.createTempFile("blockhound", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("reactor.blockhound.BlockingCall");
+            recording.start();
+
+            Thread thread = new NonBlockingThread(() -> {
+                for (int i = 0; i < 3; i++) {
+                    Thread.yield();
+                }
+            });
+            thread.start();
+            thread.join(5_000);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file)
+                                                  .stream()
+                                                  .filter(it -> it.getEventType().getName().equals("reactor.blockhound.BlockingCall"))
+                                                  .collect(Collectors.toList());
+        Files.delete(file);
+
+        assertThat(events).hasSize(3).allSatisfy(it -> {
+            assertThat(it.getString("blockingMethod")).startsWith("java.lang.Thread.yield");
+            assertThat(it.getInt("samplingInterval")).isEqualTo(1);
+            assertThat(it.getThread().getJavaName()).isEqualTo("non-blocking");
+            assertThat(it.getStackTrace()).isNotNull();
+        });
+    }
+
+    static class NonBlockingThread extends Thread {
+
+        NonBlockingThread(Runnable target) {
+            super(target, "non-blocking");
+        }
+    }
+}
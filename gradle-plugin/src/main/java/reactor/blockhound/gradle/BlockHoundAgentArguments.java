@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound.gradle;
+
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.process.CommandLineArgumentProvider;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The JVM arguments that attach the agent to a test task, with the (dis-)allowances that were not woven at build time
+ * as agent arguments, see {@code BlockHound#premain}.
+ */
+public abstract class BlockHoundAgentArguments implements CommandLineArgumentProvider {
+
+    /**
+     * @return the BlockHound jar
+     */
+    @Classpath
+    public abstract ConfigurableFileCollection getAgent();
+
+    @Input
+    public abstract ListProperty<String> getAllowedMethods();
+
+    @Input
+    public abstract ListProperty<String> getDisallowedMethods();
+
+    /**
+     * @return the directories of the classes whose (dis-)allowances were woven, none if not woven
+     */
+    @Internal
+    public abstract ConfigurableFileCollection getWovenClassesDirs();
+
+    /**
+     * Not an input, since the cached classes do not change the outcome of the tests.
+     *
+     * @return the directory of the transformed classes cache, if any
+     */
+    @Internal
+    public abstract DirectoryProperty getCacheDirectory();
+
+    /**
+     * @return the major Java version of the test JVM
+     */
+    @Input
+    public abstract Property<Integer> getJavaVersion();
+
+    @Override
+    public Iterable<String> asArguments() {
+        List<String> agentArgs = new ArrayList<>();
+        List<String> allowed = notWoven(getAllowedMethods().get());
+        if (!allowed.isEmpty()) {
+            agentArgs.add("allow=" + String.join(";", allowed));
+        }
+        List<String> disallowed = notWoven(getDisallowedMethods().get());
+        if (!disallowed.isEmpty()) {
+            agentArgs.add("disallow=" + String.join(";", disallowed));
+        }
+        if (getCacheDirectory().isPresent()) {
+            agentArgs.add("cacheDir=" + getCacheDirectory().get().getAsFile().getAbsolutePath());
+        }
+        for (String agentArg : agentArgs) {
+            if (agentArg.indexOf(',') >= 0) {
+                throw new IllegalArgumentException("The agent arguments must not contain ',', got: " + agentArg);
+            }
+        }
+
+        List<String> arguments = new ArrayList<>();
+        String javaagent = "-javaagent:" + getAgent().getSingleFile().getAbsolutePath();
+        arguments.add(agentArgs.isEmpty() ? javaagent : javaagent + "=" + String.join(",", agentArgs));
+        if (getJavaVersion().get() >= 13) {
+            // See https://github.com/reactor/BlockHound/issues/33
+            arguments.add("-XX:+AllowRedefinitionToAddDeleteMethods");
+        }
+        return arguments;
+    }
+
+    private List<String> notWoven(List<String> methods) {
+        // The invalid methods are reported by the agent
+        return methods.stream()
+                      .filter(method -> method.indexOf('#') <= 0 || !isWoven(method.substring(0, method.indexOf('#'))))
+                      .collect(Collectors.toList());
+    }
+
+    private boolean isWoven(String className) {
+        String classFile = className.replace('.', '/') + ".class";
+        for (File classesDir : getWovenClassesDirs()) {
+            if (new File(classesDir, classFile).isFile()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
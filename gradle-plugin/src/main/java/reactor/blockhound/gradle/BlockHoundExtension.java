@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound.gradle;
+
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+
+/**
+ * The {@code blockhound} extension, that configures the agent attached to the test tasks:
+ * <pre>
+ * blockhound {
+ *     allowBlockingCallsInside("com.example.Cache", "load")
+ *     weaveAllowances = true
+ * }
+ * </pre>
+ * The integrations found on the test runtime classpath are loaded by the agent too.
+ */
+public abstract class BlockHoundExtension {
+
+    /**
+     * @return the version of the {@code io.projectreactor.tools:blockhound} agent, the version of the plugin by default
+     */
+    public abstract Property<String> getToolVersion();
+
+    /**
+     * @return the methods to allow blocking calls inside, formatted as {@code com.example.Foo#bar}
+     */
+    public abstract ListProperty<String> getAllowedMethods();
+
+    /**
+     * @return the methods to disallow blocking calls inside, formatted as {@code com.example.Foo#bar}
+     */
+    public abstract ListProperty<String> getDisallowedMethods();
+
+    /**
+     * Whether the (dis-)allowances of the classes of the {@code main} source set are woven into them at build time
+     * ({@code true} by default), so that they are not retransformed when the agent is installed.
+     * The tests then run with the woven classes instead of the compiled ones.
+     *
+     * @return whether the (dis-)allowances are woven at build time
+     */
+    public abstract Property<Boolean> getWeaveAllowances();
+
+    /**
+     * @return the directory where the agent caches the transformed JDK classes across the test JVMs, none by default
+     */
+    public abstract DirectoryProperty getCacheDirectory();
+
+    /**
+     * Allows blocking calls inside the provided method.
+     *
+     * @param className the binary name of the class, e.g. {@code com.example.Foo$Bar}
+     * @param methodName the name of the method
+     */
+    public void allowBlockingCallsInside(String className, String methodName) {
+        getAllowedMethods().add(className + "#" + methodName);
+    }
+
+    /**
+     * Disallows blocking calls inside the provided method, e.g. inside an allowed one.
+     *
+     * @param className the binary name of the class, e.g. {@code com.example.Foo$Bar}
+     * @param methodName the name of the method
+     */
+    public void disallowBlockingCallsInside(String className, String methodName) {
+        getDisallowedMethods().add(className + "#" + methodName);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound.gradle;
+
+import org.gradle.api.JavaVersion;
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.TaskProvider;
+import org.gradle.api.tasks.testing.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+
+/**
+ * Attaches the BlockHound agent to every {@link Test} task with {@code -javaagent}, instead of installing it from
+ * the tests with a self-attach (that is slow on JDK 9+ and can be disabled with {@code -XX:-EnableDynamicAgentLoading}).
+ * <p>
+ * Unless disabled with {@link BlockHoundExtension#getWeaveAllowances()}, the (dis-)allowances of the classes
+ * of the {@code main} source set are woven into them by the {@value #WEAVE_TASK_NAME} task, and the tests run with
+ * the woven classes, so that the agent only transforms the JDK classes and the dependencies.
+ */
+public class BlockHoundPlugin implements Plugin<Project> {
+
+    static final String EXTENSION_NAME = "blockhound";
+
+    static final String AGENT_CONFIGURATION_NAME = "blockhoundAgent";
+
+    static final String WEAVE_TASK_NAME = "blockhoundWeave";
+
+    @Override
+    public void apply(Project project) {
+        BlockHoundExtension extension = project.getExtensions().create(EXTENSION_NAME, BlockHoundExtension.class);
+        extension.getToolVersion().convention(pluginVersion());
+        extension.getWeaveAllowances().convention(true);
+
+        Configuration agent = project.getConfigurations().create(AGENT_CONFIGURATION_NAME, configuration -> {
+            configuration.setDescription("The BlockHound agent attached to the test tasks");
+            configuration.setCanBeConsumed(false);
+            configuration.setTransitive(false);
+            configuration.defaultDependencies(dependencies -> dependencies.add(project.getDependencies().create(
+                    "io.projectreactor.tools:blockhound:" + extension.getToolVersion().get()
+            )));
+        });
+
+        project.getPlugins().withType(JavaPlugin.class, __ -> {
+            SourceSet main = project.getExtensions()
+                                    .getByType(JavaPluginExtension.class)
+                                    .getSourceSets()
+                                    .getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+            FileCollection mainClassesDirs = main.getOutput().getClassesDirs();
+
+            TaskProvider<BlockHoundWeave> weave = project.getTasks().register(WEAVE_TASK_NAME, BlockHoundWeave.class, task -> {
+                task.setDescription("Weaves the BlockHound (dis-)allowances into the main classes.");
+                task.setClasspath(agent);
+                task.getClassesDirs().from(mainClassesDirs);
+                task.getDependencies().from(main.getCompileClasspath());
+                task.getAllowedMethods().set(extension.getAllowedMethods());
+                task.getDisallowedMethods().set(extension.getDisallowedMethods());
+                task.getOutputDirectory().convention(project.getLayout().getBuildDirectory().dir("blockhound/classes"));
+            });
+            Provider<Boolean> weaving = extension.getWeaveAllowances();
+
+            project.getTasks().withType(Test.class).configureEach(test -> {
+                FileCollection classpath = test.getClasspath();
+                FileCollection wovenClasspath = project.files(weave.flatMap(BlockHoundWeave::getOutputDirectory))
+                                                       .plus(classpath.minus(mainClassesDirs));
+                test.setClasspath(project.files((Callable<FileCollection>) () -> weaving.get() ? wovenClasspath : classpath));
+
+                BlockHoundAgentArguments arguments = project.getObjects().newInstance(BlockHoundAgentArguments.class);
+                arguments.getAgent().from(agent);
+                arguments.getAllowedMethods().set(extension.getAllowedMethods());
+                arguments.getDisallowedMethods().set(extension.getDisallowedMethods());
+                arguments.getWovenClassesDirs().from((Callable<Object>) () -> weaving.get() ? mainClassesDirs : project.files());
+                arguments.getCacheDirectory().set(extension.getCacheDirectory());
+                arguments.getJavaVersion().set(test.getJavaLauncher()
+                                                   .map(launcher -> launcher.getMetadata().getLanguageVersion().asInt())
+                                                   .orElse(Integer.parseInt(JavaVersion.current().getMajorVersion())));
+                test.getJvmArgumentProviders().add(arguments);
+            });
+        });
+    }
+
+    private static String pluginVersion() {
+        Properties properties = new Properties();
+        try (InputStream inputStream = BlockHoundPlugin.class.getResourceAsStream("blockhound-gradle-plugin.properties")) {
+            properties.load(inputStream);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return properties.getProperty("version");
+    }
+}
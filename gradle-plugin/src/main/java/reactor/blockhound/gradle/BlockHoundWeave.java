@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound.gradle;
+
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.JavaExec;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Weaves the (dis-)allowances into the compiled classes with the {@code reactor.blockhound.BuildTimeWeaver}
+ * entry point of the agent jar, so that the agent does not retransform them. The classes without (dis-)allowances are copied as is.
+ */
+@CacheableTask
+public abstract class BlockHoundWeave extends JavaExec {
+
+    static final String MAIN_CLASS = "reactor.blockhound.BuildTimeWeaver";
+
+    /**
+     * @return the directories of the compiled classes
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getClassesDirs();
+
+    /**
+     * @return the dependencies of the compiled classes, to resolve their super types
+     */
+    @Classpath
+    public abstract ConfigurableFileCollection getDependencies();
+
+    /**
+     * @return the methods to allow blocking calls inside, formatted as {@code com.example.Foo#bar}
+     */
+    @Input
+    public abstract ListProperty<String> getAllowedMethods();
+
+    /**
+     * @return the methods to disallow blocking calls inside, formatted as {@code com.example.Foo#bar}
+     */
+    @Input
+    public abstract ListProperty<String> getDisallowedMethods();
+
+    /**
+     * @return the directory of the woven classes
+     */
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDirectory();
+
+    @Inject
+    protected abstract FileSystemOperations getFileSystemOperations();
+
+    public BlockHoundWeave() {
+        getMainClass().set(MAIN_CLASS);
+    }
+
+    @Override
+    @TaskAction
+    public void exec() {
+        File outputDirectory = getOutputDirectory().get().getAsFile();
+        // The classes that do not exist anymore must not be kept
+        getFileSystemOperations().delete(spec -> spec.delete(outputDirectory));
+
+        List<String> args = new ArrayList<>();
+        for (File classesDir : getClassesDirs()) {
+            if (classesDir.isDirectory()) {
+                args.add("--classes");
+                args.add(classesDir.getAbsolutePath());
+            }
+        }
+        args.add("--out");
+        args.add(outputDirectory.getAbsolutePath());
+        args.add("--classpath");
+        args.add(getDependencies().getAsPath());
+        if (!getAllowedMethods().get().isEmpty()) {
+            args.add("--allow");
+            args.add(String.join(";", getAllowedMethods().get()));
+        }
+        if (!getDisallowedMethods().get().isEmpty()) {
+            args.add("--disallow");
+            args.add(String.join(";", getDisallowedMethods().get()));
+        }
+        setArgs(args);
+
+        if (!args.contains("--classes")) {
+            // Nothing was compiled
+            outputDirectory.mkdirs();
+            return;
+        }
+        super.exec();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026-Present Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.blockhound.gradle;
+
+import org.gradle.api.Project;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.tasks.testing.Test;
+import org.gradle.process.CommandLineArgumentProvider;
+import org.gradle.testfixtures.ProjectBuilder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlockHoundPluginTest {
+
+    @org.junit.jupiter.api.Test
+    void shouldAttachTheAgentWithTheAllowancesThatWereNotWoven() throws Exception {
+        Project project = ProjectBuilder.builder().build();
+        project.getPluginManager().apply(JavaPlugin.class);
+        project.getPluginManager().apply(BlockHoundPlugin.class);
+
+        File agentJar = project.file("blockhound.jar");
+        project.getDependencies().add(BlockHoundPlugin.AGENT_CONFIGURATION_NAME, project.files(agentJar));
+        File wovenClass = project.file("build/classes/java/main/com/example/Cache.class");
+        assertThat(wovenClass.getParentFile().mkdirs()).isTrue();
+        assertThat(wovenClass.createNewFile()).isTrue();
+
+        BlockHoundExtension extension = project.getExtensions().getByType(BlockHoundExtension.class);
+        extension.allowBlockingCallsInside("com.example.Cache", "load");
+        extension.allowBlockingCallsInside("java.util.UUID", "randomUUID");
+        extension.disallowBlockingCallsInside("com.example.Cache", "loadNow");
+
+        assertThat(jvmArguments(project)).startsWith("-javaagent:" + agentJar.getAbsolutePath() + "=allow=java.util.UUID#randomUUID");
+        assertThat(testClasspath(project)).contains(project.file("build/blockhound/classes"));
+
+        extension.getWeaveAllowances().set(false);
+        assertThat(jvmArguments(project)).startsWith("-javaagent:" + agentJar.getAbsolutePath() +
+                "=allow=com.example.Cache#load;java.util.UUID#randomUUID,disallow=com.example.Cache#loadNow");
+        assertThat(testClasspath(project)).doesNotContain(project.file("build/blockhound/classes"));
+    }
+
+    @org.junit.jupiter.api.Test
+    void shouldRegisterTheWeaveTask() {
+        Project project = ProjectBuilder.builder().build();
+        project.getPluginManager().apply(BlockHoundPlugin.class);
+        assertThat(project.getTasks().findByName(BlockHoundPlugin.WEAVE_TASK_NAME)).isNull();
+
+        project.getPluginManager().apply(JavaPlugin.class);
+        BlockHoundWeave weave = (BlockHoundWeave) project.getTasks().getByName(BlockHoundPlugin.WEAVE_TASK_NAME);
+        assertThat(weave.getMainClass().get()).isEqualTo(BlockHoundWeave.MAIN_CLASS);
+        assertThat(weave.getOutputDirectory().get().getAsFile()).isEqualTo(project.file("build/blockhound/classes"));
+    }
+
+    private static String jvmArguments(Project project) {
+        Test test = (Test) project.getTasks().getByName(JavaPlugin.TEST_TASK_NAME);
+        List<String> arguments = new ArrayList<>();
+        for (CommandLineArgumentProvider provider : test.getJvmArgumentProviders()) {
+            provider.asArguments().forEach(arguments::add);
+        }
+        return String.join(" ", arguments);
+    }
+
+    private static List<File> testClasspath(Project project) {
+        Test test = (Test) project.getTasks().getByName(JavaPlugin.TEST_TASK_NAME);
+        return new ArrayList<>(test.getClasspath().getFiles());
+    }
+}